@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/* The assignments live in the default package, which code in a named package (and JMH insists on one) cannot
+ * refer to. The benchmarks reach them through method handles that are looked up once and kept in static final
+ * fields, which the JIT inlines like direct calls. Reference types are erased to Object in the handle types, so a
+ * call reads e.g. (void) OPEN.invokeExact(percolation, site) */
+final class Api {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private Api() {
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Assignment class not on the classpath: " + name, e);
+        }
+    }
+
+    // handle for a public constructor of the named class
+    static MethodHandle constructor(String type, Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(type(type), MethodType.methodType(void.class, parameters));
+            return handle.asType(erase(handle.type()));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // handle for a public instance method of the named class, taking the receiver as its first argument
+    static MethodHandle method(String type, String name, Class<?> returns, Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findVirtual(type(type), name, MethodType.methodType(returns, parameters));
+            return handle.asType(erase(handle.type()));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // handle for a public static method of the named class
+    static MethodHandle staticMethod(String type, String name, Class<?> returns, Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findStatic(type(type), name, MethodType.methodType(returns, parameters));
+            return handle.asType(erase(handle.type()));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /* An instance of the named single-method interface of an assignment (whose parameter types are assignment classes
+     * too, so no lambda can be written for it here), implemented by the given handle, e.g. a static method of the
+     * benchmark taking Objects; lookup must be able to see that method. Like a lambda, calling it allocates nothing */
+    static Object implement(String type, String method, MethodHandles.Lookup lookup, MethodHandle implementation) {
+        try {
+            Class<?> face = type(type);
+            MethodType signature = null;
+            for (Method m : face.getMethods())
+                if (m.getName().equals(method))
+                    signature = MethodType.methodType(m.getReturnType(), m.getParameterTypes());
+            if (signature == null)
+                throw new IllegalStateException("No method " + method + " in " + type);
+            return LambdaMetafactory.metafactory(lookup, method, MethodType.methodType(face), signature,
+                                                 implementation, signature).getTarget().invoke();
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static MethodType erase(MethodType type) {
+        for (int i = 0; i < type.parameterCount(); i++)
+            if (!type.parameterType(i).isPrimitive())
+                type = type.changeParameterType(i, Object.class);
+        if (!type.returnType().isPrimitive())
+            type = type.changeReturnType(Object.class);
+        return type;
+    }
+
+    // turns whatever a handle threw into an unchecked exception, for handles called from lambdas
+    static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException)
+            return (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,117 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/* Producer/consumer hand-off through BoundedBlockingDeque, ArrayBlockingQueue and LinkedBlockingDeque, all bounded to
+ * the same capacity: one producer thread adds at the back while one consumer takes from the front, either one item
+ * at a time or in batches of up to 64 with drainTo. Both sides wait with a short timeout rather than forever, so that
+ * neither can be left blocked when JMH ends an iteration. Throughput mode gives items per microsecond on each side,
+ * SampleTime the latency distribution of single operations, waiting included */
+@State(Scope.Group)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingDequeBenchmark {
+    private static final int CAPACITY = 1024, BATCH = 64;
+    private static final long TIMEOUT = 1; // milliseconds
+    private static final MethodHandle NEW_DEQUE = Api.constructor("BoundedBlockingDeque", int.class);
+    private static final MethodHandle OFFER_LAST = Api.method("BoundedBlockingDeque", "offerLast", boolean.class,
+                                                              Object.class, long.class, TimeUnit.class);
+    private static final MethodHandle POLL_FIRST = Api.method("BoundedBlockingDeque", "pollFirst", Object.class,
+                                                              long.class, TimeUnit.class);
+    private static final MethodHandle DRAIN_TO = Api.method("BoundedBlockingDeque", "drainTo", int.class,
+                                                            Collection.class, int.class);
+    private static final Integer ITEM = 42;
+
+    @Param({ "BoundedBlockingDeque", "ArrayBlockingQueue", "LinkedBlockingDeque" })
+    private String implementation;
+
+    private Object deque;            // the BoundedBlockingDeque, or
+    private BlockingQueue<Integer> queue; // one of the JDK queues
+    private final List<Object> batch = new ArrayList<>(BATCH); // only used by the consumer thread
+
+    @Setup
+    public void setUp() throws Throwable {
+        switch (implementation) {
+            case "BoundedBlockingDeque":
+                deque = (Object) NEW_DEQUE.invokeExact(CAPACITY);
+                break;
+            case "ArrayBlockingQueue":
+                queue = new ArrayBlockingQueue<>(CAPACITY);
+                break;
+            default:
+                queue = new LinkedBlockingDeque<>(CAPACITY);
+        }
+    }
+
+    private boolean put() throws Throwable {
+        if (deque != null)
+            return (boolean) OFFER_LAST.invokeExact(deque, (Object) ITEM, TIMEOUT, (Object) TimeUnit.MILLISECONDS);
+        return queue.offer(ITEM, TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    private Object take() throws Throwable {
+        if (deque != null)
+            return (Object) POLL_FIRST.invokeExact(deque, TIMEOUT, (Object) TimeUnit.MILLISECONDS);
+        return queue.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("single")
+    @GroupThreads(1)
+    public boolean singleProducer() throws Throwable {
+        return put();
+    }
+
+    @Benchmark
+    @Group("single")
+    @GroupThreads(1)
+    public Object singleConsumer() throws Throwable {
+        return take();
+    }
+
+    @Benchmark
+    @Group("batched")
+    @GroupThreads(1)
+    public boolean batchedProducer() throws Throwable {
+        return put();
+    }
+
+    // waits for one item, then drains whatever else is there, up to a batch
+    @Benchmark
+    @Group("batched")
+    @GroupThreads(1)
+    public int batchedConsumer() throws Throwable {
+        batch.clear();
+        Object first = take();
+        if (first == null)
+            return 0;
+        batch.add(first);
+        if (deque != null)
+            return 1 + (int) DRAIN_TO.invokeExact(deque, (Object) batch, BATCH - 1);
+        return 1 + queue.drainTo((Collection) batch, BATCH - 1);
+    }
+}
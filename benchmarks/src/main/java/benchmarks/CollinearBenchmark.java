@@ -0,0 +1,98 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* FastCollinearPoints, ParallelFastCollinearPoints (on the common pool) and HashCollinearPoints on distinct random
+ * points in the 32768 x 32768 square used by the course inputs, with one point in 10 placed on a few long lines so
+ * that there are segments to find, and IncrementalCollinearPoints adding the same points one at a time. The run time
+ * grows as n^2: 50000 points and up take minutes per operation, so run those sizes on their own, e.g.
+ * "-p points=50000 -wi 0 -i 1" */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollinearBenchmark {
+    private static final int SIDE = 32768;
+    private static final MethodHandle NEW_POINT = Api.constructor("Point", int.class, int.class);
+    private static final MethodHandle NEW_FAST = Api.constructor("FastCollinearPoints", Api.type("[LPoint;"));
+    private static final MethodHandle SEGMENTS = Api.method("FastCollinearPoints", "numberOfSegments", int.class);
+    private static final MethodHandle NEW_PARALLEL =
+            Api.constructor("ParallelFastCollinearPoints", Api.type("[LPoint;"));
+    private static final MethodHandle PARALLEL_SEGMENTS =
+            Api.method("ParallelFastCollinearPoints", "numberOfSegments", int.class);
+    private static final MethodHandle NEW_HASH = Api.constructor("HashCollinearPoints", Api.type("[LPoint;"));
+    private static final MethodHandle HASH_SEGMENTS = Api.method("HashCollinearPoints", "numberOfSegments", int.class);
+    private static final MethodHandle NEW_INCREMENTAL =
+            Api.constructor("IncrementalCollinearPoints", Api.type("[LPoint;"));
+    private static final MethodHandle INCREMENTAL_SEGMENTS =
+            Api.method("IncrementalCollinearPoints", "numberOfSegments", int.class);
+
+    @Param({ "1000", "10000", "50000", "100000" })
+    private int points;
+
+    private Object pointArray;
+
+    @Setup
+    public void setUp() throws Throwable {
+        SplittableRandom random = new SplittableRandom(42);
+        Set<Long> taken = new HashSet<>();
+        pointArray = Array.newInstance(Api.type("Point"), points);
+        int i = 0;
+        while (i < points) {
+            int x, y;
+            if (i % 10 == 0) { // on one of the lines y = x + k * 1024
+                x = random.nextInt(SIDE);
+                y = (x + 1024 * random.nextInt(8)) % SIDE;
+            }
+            else {
+                x = random.nextInt(SIDE);
+                y = random.nextInt(SIDE);
+            }
+            if (taken.add((long) x * SIDE + y))
+                Array.set(pointArray, i++, (Object) NEW_POINT.invokeExact(x, y));
+        }
+    }
+
+    @Benchmark
+    public int fastCollinearPoints() throws Throwable {
+        Object collinear = (Object) NEW_FAST.invokeExact(pointArray);
+        return (int) SEGMENTS.invokeExact(collinear);
+    }
+
+    @Benchmark
+    public int parallelFastCollinearPoints() throws Throwable {
+        Object collinear = (Object) NEW_PARALLEL.invokeExact(pointArray);
+        return (int) PARALLEL_SEGMENTS.invokeExact(collinear);
+    }
+
+    @Benchmark
+    public int hashCollinearPoints() throws Throwable {
+        Object collinear = (Object) NEW_HASH.invokeExact(pointArray);
+        return (int) HASH_SEGMENTS.invokeExact(collinear);
+    }
+
+    @Benchmark
+    public int incrementalCollinearPoints() throws Throwable {
+        Object collinear = (Object) NEW_INCREMENTAL.invokeExact(pointArray);
+        return (int) INCREMENTAL_SEGMENTS.invokeExact(collinear);
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/* One queue shared by 1 to 8 threads, each of which enqueues an item and dequeues one in every operation, so the
+ * size stays at the prefilled 65536 items. "sharded" is ConcurrentRandomizedQueue, "synchronized" a RandomizedQueue
+ * with every call made under one shared monitor. The score is the throughput of all threads together */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentRandomizedQueueBenchmark {
+    private static final int PREFILL = 1 << 16;
+    private static final MethodHandle NEW_SHARDED = Api.constructor("ConcurrentRandomizedQueue");
+    private static final MethodHandle SHARDED_ENQUEUE = Api.method("ConcurrentRandomizedQueue", "enqueue", void.class,
+                                                                   Object.class);
+    private static final MethodHandle SHARDED_POLL = Api.method("ConcurrentRandomizedQueue", "poll", Object.class);
+    private static final MethodHandle NEW_QUEUE = Api.constructor("RandomizedQueue");
+    private static final MethodHandle ENQUEUE = Api.method("RandomizedQueue", "enqueue", void.class, Object.class);
+    private static final MethodHandle DEQUEUE = Api.method("RandomizedQueue", "dequeue", Object.class);
+    private static final Integer ITEM = 42;
+
+    @Param({ "sharded", "synchronized" })
+    private String queue;
+
+    private boolean sharded;
+    private Object target;
+
+    @Setup
+    public void setUp() throws Throwable {
+        sharded = queue.equals("sharded");
+        target = sharded ? (Object) NEW_SHARDED.invokeExact() : (Object) NEW_QUEUE.invokeExact();
+        for (int i = 0; i < PREFILL; i++)
+            enqueue(i);
+    }
+
+    private void enqueue(Object item) throws Throwable {
+        if (sharded)
+            SHARDED_ENQUEUE.invokeExact(target, item);
+        else synchronized (target) {
+            ENQUEUE.invokeExact(target, item);
+        }
+    }
+
+    private Object dequeue() throws Throwable {
+        if (sharded)
+            return (Object) SHARDED_POLL.invokeExact(target);
+        synchronized (target) {
+            return (Object) DEQUEUE.invokeExact(target);
+        }
+    }
+
+    private Object enqueueDequeue() throws Throwable {
+        enqueue(ITEM);
+        return dequeue();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object threads1() throws Throwable {
+        return enqueueDequeue();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object threads2() throws Throwable {
+        return enqueueDequeue();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object threads4() throws Throwable {
+        return enqueueDequeue();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object threads8() throws Throwable {
+        return enqueueDequeue();
+    }
+}
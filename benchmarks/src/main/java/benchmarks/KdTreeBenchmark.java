@@ -0,0 +1,73 @@
+package benchmarks;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// nearest-neighbor and range queries on a KdTree of random points in the unit square, built once per trial
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class KdTreeBenchmark {
+    private static final int QUERIES = 1 << 12;
+    private static final MethodHandle NEW_TREE = Api.constructor("KdTree");
+    private static final MethodHandle INSERT = Api.method("KdTree", "insert", void.class, Point2D.class);
+    private static final MethodHandle NEAREST = Api.method("KdTree", "nearest", Point2D.class, Point2D.class);
+    private static final MethodHandle RANGE = Api.method("KdTree", "range", Iterable.class, RectHV.class);
+
+    @Param({ "1000000" })
+    private int points;
+
+    // side of the square range queries; 0.001 holds about one point per 1000 000 points in the tree
+    @Param({ "0.001", "0.01" })
+    private double side;
+
+    private Object tree;
+    private Point2D[] queries;
+    private RectHV[] rectangles;
+    private int next;
+
+    @Setup
+    public void setUp() throws Throwable {
+        SplittableRandom random = new SplittableRandom(42);
+        tree = (Object) NEW_TREE.invokeExact();
+        for (int i = 0; i < points; i++)
+            INSERT.invokeExact(tree, (Object) new Point2D(random.nextDouble(), random.nextDouble()));
+        queries = new Point2D[QUERIES];
+        rectangles = new RectHV[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new Point2D(random.nextDouble(), random.nextDouble());
+            double x = random.nextDouble() * (1 - side), y = random.nextDouble() * (1 - side);
+            rectangles[i] = new RectHV(x, y, x + side, y + side);
+        }
+    }
+
+    @Benchmark
+    public Object nearest() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (Object) NEAREST.invokeExact(tree, (Object) queries[next]);
+    }
+
+    @Benchmark
+    public Object range() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (Object) RANGE.invokeExact(tree, (Object) rectangles[next]);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// one percolation trial: opening the sites of an n-by-n grid in a fixed random order until it percolates
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercolationBenchmark {
+    private static final MethodHandle NEW = Api.constructor("Percolation", int.class, IntFunction.class);
+    private static final MethodHandle OPEN = Api.method("Percolation", "open", void.class, int.class);
+    private static final MethodHandle PERCOLATES = Api.method("Percolation", "percolates", boolean.class);
+
+    @Param({ "512", "2048" })
+    private int n;
+
+    @Param({ "CompactUnionFind", "AlgsUnionFind" })
+    private String engine;
+
+    private int[] order;
+    private IntFunction<Object> factory;
+
+    @Setup
+    public void setUp() {
+        MethodHandle constructor = Api.constructor(engine, int.class);
+        factory = sites -> {
+            try {
+                return constructor.invoke(sites);
+            }
+            catch (Throwable t) {
+                throw Api.rethrow(t);
+            }
+        };
+        SplittableRandom random = new SplittableRandom(42);
+        order = new int[n * n];
+        for (int i = 0; i < order.length; i++) {
+            int swap = random.nextInt(i + 1);
+            order[i] = order[swap];
+            order[swap] = i;
+        }
+    }
+
+    @Benchmark
+    public Object openUntilPercolates() throws Throwable {
+        Object percolation = (Object) NEW.invokeExact(n, (Object) factory);
+        for (int site : order) {
+            OPEN.invokeExact(percolation, site);
+            if ((boolean) PERCOLATES.invokeExact(percolation))
+                break;
+        }
+        return percolation;
+    }
+}
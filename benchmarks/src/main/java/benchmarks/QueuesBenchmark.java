@@ -0,0 +1,185 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Filling a deque or RandomizedQueue with size items and emptying it again, and iterating over a full deque. The
+ * items are boxed up front, so only the queues' own allocation is measured. The deque benchmarks run on both the
+ * linked Deque and the array-backed RingDeque, through the same handles-as-arguments helpers, and the primitive
+ * IntDeque and IntRandomizedQueue run the same loops on plain ints. The batch benchmarks compare enqueueAll and
+ * sample(k) with the equivalent loops of single calls */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueuesBenchmark {
+    private static final MethodHandle NEW_DEQUE = Api.constructor("Deque");
+    private static final MethodHandle ADD_FIRST = Api.method("Deque", "addFirst", void.class, Object.class);
+    private static final MethodHandle ADD_LAST = Api.method("Deque", "addLast", void.class, Object.class);
+    private static final MethodHandle REMOVE_FIRST = Api.method("Deque", "removeFirst", Object.class);
+    private static final MethodHandle REMOVE_LAST = Api.method("Deque", "removeLast", Object.class);
+    private static final MethodHandle NEW_RING = Api.constructor("RingDeque");
+    private static final MethodHandle RING_ADD_FIRST = Api.method("RingDeque", "addFirst", void.class, Object.class);
+    private static final MethodHandle RING_ADD_LAST = Api.method("RingDeque", "addLast", void.class, Object.class);
+    private static final MethodHandle RING_REMOVE_FIRST = Api.method("RingDeque", "removeFirst", Object.class);
+    private static final MethodHandle RING_REMOVE_LAST = Api.method("RingDeque", "removeLast", Object.class);
+    private static final MethodHandle NEW_INT_DEQUE = Api.constructor("IntDeque");
+    private static final MethodHandle INT_ADD_LAST = Api.method("IntDeque", "addLast", void.class, int.class);
+    private static final MethodHandle INT_REMOVE_FIRST = Api.method("IntDeque", "removeFirst", int.class);
+    private static final MethodHandle NEW_INT_QUEUE = Api.constructor("IntRandomizedQueue");
+    private static final MethodHandle INT_ENQUEUE = Api.method("IntRandomizedQueue", "enqueue", void.class, int.class);
+    private static final MethodHandle INT_DEQUEUE = Api.method("IntRandomizedQueue", "dequeue", int.class);
+    private static final MethodHandle NEW_QUEUE = Api.constructor("RandomizedQueue");
+    private static final MethodHandle ENQUEUE = Api.method("RandomizedQueue", "enqueue", void.class, Object.class);
+    private static final MethodHandle DEQUEUE = Api.method("RandomizedQueue", "dequeue", Object.class);
+    private static final MethodHandle ENQUEUE_ALL = Api.method("RandomizedQueue", "enqueueAll", void.class,
+                                                               Object[].class);
+    private static final MethodHandle DEQUEUE_BATCH = Api.method("RandomizedQueue", "dequeue", List.class, int.class);
+    private static final MethodHandle SAMPLE = Api.method("RandomizedQueue", "sample", Object.class);
+    private static final MethodHandle SAMPLE_BATCH = Api.method("RandomizedQueue", "sample", List.class, int.class);
+    private static final int BATCH = 256; // items drawn by the batch benchmarks
+
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    private Integer[] items;
+    private Iterable<?> linked, ring; // full deques to iterate over
+    private Object queue;             // full RandomizedQueue to sample from
+
+    @Setup
+    public void setUp() throws Throwable {
+        items = new Integer[size];
+        for (int i = 0; i < size; i++)
+            items[i] = i;
+        linked = (Iterable<?>) fill(NEW_DEQUE, ADD_LAST);
+        ring = (Iterable<?>) fill(NEW_RING, RING_ADD_LAST);
+        queue = fill(NEW_QUEUE, ENQUEUE);
+    }
+
+    private Object fill(MethodHandle create, MethodHandle add) throws Throwable {
+        Object queue = (Object) create.invokeExact();
+        for (Integer item : items)
+            add.invokeExact(queue, (Object) item);
+        return queue;
+    }
+
+    private Object fillAndDrain(MethodHandle create, MethodHandle add, MethodHandle remove) throws Throwable {
+        Object queue = fill(create, add);
+        Object last = null;
+        for (int i = 0; i < size; i++)
+            last = (Object) remove.invokeExact(queue);
+        return last;
+    }
+
+    private static long sum(Iterable<?> deque) {
+        long sum = 0;
+        for (Object item : deque)
+            sum += (Integer) item;
+        return sum;
+    }
+
+    @Benchmark
+    public Object dequeAddLastRemoveFirst() throws Throwable {
+        return fillAndDrain(NEW_DEQUE, ADD_LAST, REMOVE_FIRST);
+    }
+
+    @Benchmark
+    public Object dequeAddFirstRemoveFirst() throws Throwable {
+        return fillAndDrain(NEW_DEQUE, ADD_FIRST, REMOVE_FIRST);
+    }
+
+    @Benchmark
+    public Object dequeAddLastRemoveLast() throws Throwable {
+        return fillAndDrain(NEW_DEQUE, ADD_LAST, REMOVE_LAST);
+    }
+
+    @Benchmark
+    public long dequeIterate() {
+        return sum(linked);
+    }
+
+    @Benchmark
+    public Object ringDequeAddLastRemoveFirst() throws Throwable {
+        return fillAndDrain(NEW_RING, RING_ADD_LAST, RING_REMOVE_FIRST);
+    }
+
+    @Benchmark
+    public Object ringDequeAddFirstRemoveFirst() throws Throwable {
+        return fillAndDrain(NEW_RING, RING_ADD_FIRST, RING_REMOVE_FIRST);
+    }
+
+    @Benchmark
+    public Object ringDequeAddLastRemoveLast() throws Throwable {
+        return fillAndDrain(NEW_RING, RING_ADD_LAST, RING_REMOVE_LAST);
+    }
+
+    @Benchmark
+    public long ringDequeIterate() {
+        return sum(ring);
+    }
+
+    @Benchmark
+    public Object randomizedQueueEnqueueDequeue() throws Throwable {
+        return fillAndDrain(NEW_QUEUE, ENQUEUE, DEQUEUE);
+    }
+
+    @Benchmark
+    public long intDequeAddLastRemoveFirst() throws Throwable {
+        Object deque = (Object) NEW_INT_DEQUE.invokeExact();
+        for (int i = 0; i < size; i++)
+            INT_ADD_LAST.invokeExact(deque, i);
+        long sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += (int) INT_REMOVE_FIRST.invokeExact(deque);
+        return sum;
+    }
+
+    @Benchmark
+    public long intRandomizedQueueEnqueueDequeue() throws Throwable {
+        Object queue = (Object) NEW_INT_QUEUE.invokeExact();
+        for (int i = 0; i < size; i++)
+            INT_ENQUEUE.invokeExact(queue, i);
+        long sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += (int) INT_DEQUEUE.invokeExact(queue);
+        return sum;
+    }
+
+    @Benchmark
+    public Object randomizedQueueEnqueueAllDequeueBatch() throws Throwable {
+        Object queue = (Object) NEW_QUEUE.invokeExact();
+        ENQUEUE_ALL.invokeExact(queue, (Object) items);
+        Object last = null;
+        for (int i = 0; i + BATCH <= size; i += BATCH)
+            last = (Object) DEQUEUE_BATCH.invokeExact(queue, BATCH);
+        return last;
+    }
+
+    @Benchmark
+    public Object randomizedQueueSampleLoop() throws Throwable {
+        Object last = null;
+        for (int i = 0; i < BATCH; i++)
+            last = (Object) SAMPLE.invokeExact(queue);
+        return last;
+    }
+
+    @Benchmark
+    public Object randomizedQueueSampleBatch() throws Throwable {
+        return (Object) SAMPLE_BATCH.invokeExact(queue, BATCH);
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/* The generators of RandomGenerators on their own (1024 bounded ints, from one thread and from four threads that each
+ * get their own generator, except for StdRandom, which is one shared instance whatever the thread), and as the source
+ * of a RandomizedQueue and of sequential PercolationStats trials */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomBenchmark {
+    private static final int DRAWS = 1024;
+    private static final int QUEUE_SIZE = 100_000;
+    private static final MethodHandle OF = Api.staticMethod("RandomGenerators", "of", RandomGenerator.class,
+                                                            String.class, long.class);
+    private static final MethodHandle NEW_QUEUE = Api.constructor("RandomizedQueue", RandomGenerator.class);
+    private static final MethodHandle ENQUEUE = Api.method("RandomizedQueue", "enqueue", void.class, Object.class);
+    private static final MethodHandle DEQUEUE = Api.method("RandomizedQueue", "dequeue", Object.class);
+    private static final MethodHandle NEW_STATS = Api.constructor("PercolationStats", int.class, int.class,
+                                                                  RandomGenerator.class);
+    private static final MethodHandle MEAN = Api.method("PercolationStats", "mean", double.class);
+
+    @Param({ "StdRandom", "SplittableRandom", "Xoshiro256StarStar", "Pcg32", "L64X128MixRandom" })
+    private String generator;
+
+    private RandomGenerator random;
+    private Integer[] items;
+
+    @Setup
+    public void setUp() throws Throwable {
+        random = (RandomGenerator) (Object) OF.invokeExact((Object) generator, System.nanoTime());
+        items = new Integer[QUEUE_SIZE];
+        for (int i = 0; i < QUEUE_SIZE; i++)
+            items[i] = i;
+    }
+
+    private int draw() {
+        int sum = 0;
+        for (int i = 0; i < DRAWS; i++)
+            sum += random.nextInt(1_000_003);
+        return sum;
+    }
+
+    @Benchmark
+    public int nextIntBounded() {
+        return draw();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int nextIntBoundedFourThreads() {
+        return draw();
+    }
+
+    @Benchmark
+    public Object randomizedQueueFillDrain() throws Throwable {
+        Object queue = (Object) NEW_QUEUE.invokeExact((Object) random);
+        for (Integer item : items)
+            ENQUEUE.invokeExact(queue, (Object) item);
+        Object last = null;
+        for (int i = 0; i < QUEUE_SIZE; i++)
+            last = (Object) DEQUEUE.invokeExact(queue);
+        return last;
+    }
+
+    // 10 trials on a 64-by-64 grid
+    @Benchmark
+    public double percolationTrials() throws Throwable {
+        Object stats = (Object) NEW_STATS.invokeExact(64, 10, (Object) random);
+        return (double) MEAN.invokeExact(stats);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Reading the segments of a FastCollinearPoints that found many of them: every point of a side x side grid, whose
+ * rows, columns and diagonals of 4 or more points are all segments (15502 for side 32). Run with the gc profiler
+ * to see what each way of reading them allocates per call */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentOutputBenchmark {
+    private static final MethodHandle NEW_POINT = Api.constructor("Point", int.class, int.class);
+    private static final MethodHandle NEW_FAST = Api.constructor("FastCollinearPoints", Api.type("[LPoint;"));
+    private static final MethodHandle SEGMENTS = Api.method("FastCollinearPoints", "segments",
+                                                            Api.type("[LLineSegment;"));
+    private static final MethodHandle FOR_EACH_SEGMENT = Api.method("FastCollinearPoints", "forEachSegment",
+                                                                    void.class, Api.type("SegmentConsumer"));
+    private static final MethodHandle SEGMENT_VIEW = Api.method("FastCollinearPoints", "segmentView", List.class);
+
+    @Param({ "32" })
+    private int side;
+
+    private Object collinear;
+    private Object counter; // a SegmentConsumer that counts the segments it is given
+    private static int visited;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Object points = Array.newInstance(Api.type("Point"), side * side);
+        for (int i = 0; i < side * side; i++)
+            Array.set(points, i, (Object) NEW_POINT.invokeExact(i % side, i / side));
+        collinear = (Object) NEW_FAST.invokeExact(points);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        counter = Api.implement("SegmentConsumer", "accept", lookup, lookup.findStatic(SegmentOutputBenchmark.class,
+                "count", MethodType.methodType(void.class, Object.class, Object.class)));
+    }
+
+    private static void count(Object p, Object q) {
+        visited++;
+    }
+
+    @Benchmark
+    public int segmentsArray() throws Throwable {
+        return Array.getLength((Object) SEGMENTS.invokeExact(collinear));
+    }
+
+    @Benchmark
+    public int forEachSegment() throws Throwable {
+        visited = 0;
+        FOR_EACH_SEGMENT.invokeExact(collinear, counter);
+        return visited;
+    }
+
+    @Benchmark
+    public int segmentView() throws Throwable {
+        List<?> view = (List<?>) (Object) SEGMENT_VIEW.invokeExact(collinear);
+        int hashes = 0;
+        for (int i = 0, n = view.size(); i < n; i++)
+            hashes += System.identityHashCode(view.get(i));
+        return hashes;
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// the A* Solver on puzzles from the course's 8puzzle.zip, named after their files (the number is the move count)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    private static final MethodHandle NEW_BOARD = Api.constructor("Board", int[][].class);
+    private static final MethodHandle NEW_SOLVER = Api.constructor("Solver", Api.type("Board"));
+    private static final MethodHandle MOVES = Api.method("Solver", "moves", int.class);
+
+    private static final Map<String, int[][]> PUZZLES = new HashMap<>();
+
+    static {
+        PUZZLES.put("puzzle3x3-20", new int[][] { { 7, 4, 3 }, { 2, 8, 6 }, { 0, 5, 1 } });
+        PUZZLES.put("puzzle3x3-30", new int[][] { { 8, 6, 7 }, { 2, 0, 4 }, { 3, 5, 1 } });
+        PUZZLES.put("puzzle4x4-20", new int[][] {
+                { 6, 3, 7, 4 }, { 2, 9, 10, 8 }, { 1, 5, 12, 15 }, { 13, 0, 14, 11 } });
+        PUZZLES.put("puzzle4x4-30", new int[][] {
+                { 2, 4, 8, 12 }, { 1, 7, 3, 14 }, { 0, 6, 15, 11 }, { 5, 9, 13, 10 } });
+        PUZZLES.put("puzzle4x4-40", new int[][] {
+                { 5, 6, 3, 4 }, { 8, 0, 1, 15 }, { 10, 7, 2, 11 }, { 12, 9, 14, 13 } });
+    }
+
+    @Param({ "puzzle3x3-20", "puzzle3x3-30", "puzzle4x4-20", "puzzle4x4-30", "puzzle4x4-40" })
+    private String puzzle;
+
+    private Object board;
+
+    @Setup
+    public void setUp() throws Throwable {
+        board = (Object) NEW_BOARD.invokeExact((Object) PUZZLES.get(puzzle));
+    }
+
+    @Benchmark
+    public int solve() throws Throwable {
+        Object solver = (Object) NEW_SOLVER.invokeExact(board);
+        return (int) MOVES.invokeExact(solver);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/* Contention on WorkStealingDeque: the benchmark thread is the owner, pushing a batch of items and popping them back
+ * until the deque is empty, while threads - 1 thieves keep stealing from the other end. The score is batches per
+ * millisecond on the owner side; the more thieves there are, the more of every batch they take and the more often
+ * pop has to race them for the last item. Thieves back off with Thread.yield when they find the deque empty, so
+ * running more threads than cores still lets the owner make progress */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingBenchmark {
+    private static final int BATCH = 1024;
+    private static final MethodHandle NEW_DEQUE = Api.constructor("WorkStealingDeque");
+    private static final MethodHandle PUSH = Api.method("WorkStealingDeque", "push", void.class, Object.class);
+    private static final MethodHandle POP = Api.method("WorkStealingDeque", "pop", Object.class);
+    private static final MethodHandle STEAL = Api.method("WorkStealingDeque", "steal", Object.class);
+
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    private int threads;
+
+    private Object deque;
+    private Integer[] items;
+    private Thread[] thieves;
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() throws Throwable {
+        deque = (Object) NEW_DEQUE.invokeExact();
+        items = new Integer[BATCH];
+        for (int i = 0; i < BATCH; i++)
+            items[i] = i;
+        running = true;
+        thieves = new Thread[threads - 1];
+        for (int i = 0; i < thieves.length; i++) {
+            thieves[i] = new Thread(this::steal, "thief-" + i);
+            thieves[i].setDaemon(true);
+            thieves[i].start();
+        }
+    }
+
+    private void steal() {
+        try {
+            while (running)
+                if ((Object) STEAL.invokeExact(deque) == null)
+                    Thread.yield();
+        }
+        catch (Throwable t) {
+            throw Api.rethrow(t);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread thief : thieves)
+            thief.join();
+    }
+
+    // pushes a batch and pops until empty, returning how many items the owner got back itself
+    @Benchmark
+    public int pushPopUnderSteal() throws Throwable {
+        for (Integer item : items)
+            PUSH.invokeExact(deque, (Object) item);
+        int popped = 0;
+        while ((Object) POP.invokeExact(deque) != null)
+            popped++;
+        return popped;
+    }
+}
@@ -2,13 +2,13 @@ import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class BruteCollinearPoints {
-    // we use a list to add the segments instead of an array, as we don't yet know how many segments we will find
-    private List<LineSegment> segmentList;
+    // we store the segments as the indices of their endpoints in pointsCopy, as we don't yet know how many segments
+    // we will find, and most callers never need a LineSegment object for each of them
+    private SegmentStore segmentStore;
 
     public BruteCollinearPoints(Point[] points) { // finds all line segments containing 4 points
         if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
@@ -24,7 +24,7 @@ public class BruteCollinearPoints {
             if (pointsCopy[i].compareTo(pointsCopy[i + 1]) == 0) throw new IllegalArgumentException(
                     String.format("Duplicate point input not allowed: found: %s", pointsCopy[i].toString()));
         }
-        segmentList = new ArrayList<>();
+        segmentStore = new SegmentStore(pointsCopy);
         if (points.length < 4) {
             System.out.println(
                     "Warning, less than 4 points provided, 0 segments of 4 collinear points found");
@@ -41,7 +41,7 @@ public class BruteCollinearPoints {
                         if ((pointsCopy[i].slopeTo(pointsCopy[j]) == pointsCopy[i].slopeTo(pointsCopy[k])) &&
                                 (pointsCopy[i].slopeTo(pointsCopy[k]) == pointsCopy[i].slopeTo(pointsCopy[l]))) { // if we find 4 collinear points
                             Point min = pointsCopy[i];
-                            Point max = pointsCopy[l];
+                            int max = l; // index of the largest point found so far
                             double referenceSLope = pointsCopy[i].slopeTo(pointsCopy[l]); // we save the slope
                             // we make sure that pointsCopy[i] is the smallest Point, searching all indices until i since the pointsCopy array is sorted
                             for (int iterate = 0; iterate < i; iterate++) {
@@ -54,11 +54,11 @@ public class BruteCollinearPoints {
                                 // if it is the smallest, we search for possible greater points on the same segment by iterating l until the end
                                 while (l < pointsCopy.length) {
                                     if (pointsCopy[i].slopeTo(pointsCopy[l]) == referenceSLope) {
-                                        max = pointsCopy[l];
+                                        max = l;
                                     }
                                     l++;
                                 }
-                                segmentList.add(new LineSegment(min, max));
+                                segmentStore.add(i, max);
                             }
                             // l would have reached the end, we end k here as well since it has the same slope, and we let j go to the next value
                             l = pointsCopy.length;
@@ -68,17 +68,21 @@ public class BruteCollinearPoints {
     }
 
     public int numberOfSegments() { // the number of line segments
-        return segmentList.size();
+        return segmentStore.size();
     }
 
-    public LineSegment[] segments() { // the line segments
-        LineSegment[] segmentArr = new LineSegment[segmentList.size()];
-        int index = 0;
-        for (LineSegment l : segmentList) {
-            segmentArr[index] = l;
-            index++;
-        }
-        return segmentArr;
+    public LineSegment[] segments() { // the line segments, in a new array (the LineSegments themselves are kept)
+        return segmentStore.toArray();
+    }
+
+    // passes the endpoints of every line segment to the consumer, without creating a LineSegment for it
+    public void forEachSegment(SegmentConsumer consumer) {
+        segmentStore.forEachSegment(consumer);
+    }
+
+    // a read-only view of the line segments, which creates only the LineSegments that are read from it
+    public List<LineSegment> segmentView() {
+        return segmentStore.view();
     }
 
     public static void main(String[] args) {
@@ -18,19 +18,23 @@
    public String toString()                    // string representation
   }
   
-  Fast solution in a nutshell: For every point: use mergesort to quickly sort points in the order of slopes made to that point, then look for 4 points with the same slope
+  Fast solution in a nutshell: For every point: sort the other points in the order of the slopes they make to that point, then look for 3 or more of them with the same slope
+
+  The slope of every point to the reference point is computed only once, as a long key that sorts like the slope, and
+  the indices of the points are sorted by these keys with a radix sort, so no Comparator is called and no Point is
+  looked at during the sort; the scan for equal slopes then only compares the keys (see SlopeSorter)
 */
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class FastCollinearPoints {
-    // we use a list to add the segments instead of an array, as we don't yet know how many segments we will find
-    private List<LineSegment> segmentList;
+    // we store the segments as the indices of their endpoints in pointsCopy, as we don't yet know how many segments
+    // we will find, and most callers never need a LineSegment object for each of them
+    private SegmentStore segmentStore;
 
     public FastCollinearPoints(Point[] points) { // finds all line segments containing 4 or more points
         if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
@@ -52,7 +56,7 @@ public class FastCollinearPoints {
                     String.format("Duplicate point input not allowed: found: %s", pointsCopy[i].toString()));
         }
 
-        segmentList = new ArrayList<>();
+        segmentStore = new SegmentStore(pointsCopy);
         if (points.length < 4) {
             System.out.println(
                     "Warning, less than 4 points provided, 0 segments of 4 collinear points found");
@@ -60,51 +64,28 @@ public class FastCollinearPoints {
             return;
         }
 
-        for (Point p : points) {
-            // for each point p in points, we sort pointsCopy in ascending order of slopes relative to it
-            Arrays.sort(pointsCopy, p.slopeOrder());
-
-            // while having pointsCopy[0] be the reference point, we check its slope relative to
-            // each group of 3 nearby points in sorted slope order, in order to find 3 identical slopes
-            for (int i = 1; i < pointsCopy.length - 2; i++) {
-                if ((pointsCopy[0].slopeTo(pointsCopy[i]) == pointsCopy[0].slopeTo(pointsCopy[i + 1])) && (
-                        pointsCopy[0].slopeTo(pointsCopy[i + 1]) == pointsCopy[0].slopeTo(pointsCopy[i + 2]))) {
-                    // we will keep a reference to the min/max point in order to guarantee tha longest segments
-                    Point min = pointsCopy[0];
-                    Point max = pointsCopy[0];
-                    // if we have a hit, and optionally if there are more equal slopes following, we keep checking (while incrementing i inside the loop),
-                    // and keep track if the new points that make the same slope are the new min/max (concerning the y and x coordinate)
-                    while ((i < pointsCopy.length - 1) && (pointsCopy[0].slopeTo(pointsCopy[i]) == pointsCopy[0].slopeTo(pointsCopy[i + 1]))) {
-                        if (pointsCopy[i].compareTo(max) > 0) max = pointsCopy[i];
-                        if (pointsCopy[i].compareTo(min) < 0) min = pointsCopy[i];
-                        i++;
-                    }
-                    // we check again for the last point, since doing that inside the loop would eventually cause an IndexOutOfBoundsException()
-                    if (pointsCopy[i].compareTo(max) > 0) max = pointsCopy[i];
-                    if (pointsCopy[i].compareTo(min) < 0) min = pointsCopy[i];
-
-                    // we add the new point only if the reference point was the smallest one to begin with,
-                    // in order to avoid duplicate segments and only add the longest ones
-                    if (pointsCopy[0].compareTo(min) == 0)
-                        segmentList.add(new LineSegment(min, max));
-                }
-            }
-        }
+        // the slope keys, the order that sorts them and the radix sort's scratch arrays, reused for every point
+        SlopeSorter sorter = new SlopeSorter(pointsCopy);
+        for (int p = 0; p < pointsCopy.length; p++)
+            sorter.addSegments(p, segmentStore);
     }
 
     public int numberOfSegments() { // the number of line segments
-        return segmentList.size();
+        return segmentStore.size();
     }
 
-    public LineSegment[] segments() { // the line segments
-        // we create an array in which we copy to list to be returned by the segments() function
-        LineSegment[] segmentArr = new LineSegment[segmentList.size()];
-        int index = 0;
-        for (LineSegment l : segmentList) {
-            segmentArr[index] = l;
-            index++;
-        }
-        return segmentArr;
+    public LineSegment[] segments() { // the line segments, in a new array (the LineSegments themselves are kept)
+        return segmentStore.toArray();
+    }
+
+    // passes the endpoints of every line segment to the consumer, without creating a LineSegment for it
+    public void forEachSegment(SegmentConsumer consumer) {
+        segmentStore.forEachSegment(consumer);
+    }
+
+    // a read-only view of the line segments, which creates only the LineSegments that are read from it
+    public List<LineSegment> segmentView() {
+        return segmentStore.view();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,119 @@
+/* Finds the same maximal segments of 4 or more collinear points as FastCollinearPoints, in expected O(n^2) time
+ * instead of O(n^2 log n), and without comparing doubles.
+
+   For every point p, the other points are grouped by the direction from p to them, as an exact reduced fraction:
+   (dy, dx) divided by their gcd, with the sign normalized so that dx > 0, or dx = 0 and dy = 1. Two points lie on
+   the same line through p exactly when their fractions are equal, so the pair, packed into a long, is a key for a
+   SlopeTable, a hash table of primitive arrays that counts each direction's points and tracks the smallest and
+   largest of them. A direction with 3 or more points is a segment, reported from p only if p is its smallest point.
+
+   The points are sorted once up front (as in FastCollinearPoints), so "smallest" and "largest" are also the
+   lowest and highest index. The packing needs reduced differences that fit an int, i.e. coordinates that span less
+   than 2^31 along each axis, which holds for the course's 0..32767
+*/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class HashCollinearPoints {
+    private SegmentStore segmentStore; // the endpoints of every segment, as indices in the sorted points
+
+    public HashCollinearPoints(Point[] points) { // finds all line segments containing 4 or more points
+        if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
+        Point[] pointsCopy = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) throw new IllegalArgumentException("Null value for Point in array not permitted");
+            pointsCopy[i] = points[i];
+        }
+        Arrays.sort(pointsCopy);
+        for (int i = 0; i < points.length - 1; i++) {
+            if (pointsCopy[i].compareTo(pointsCopy[i + 1]) == 0) throw new IllegalArgumentException(
+                    String.format("Duplicate point input not allowed: found: %s", pointsCopy[i].toString()));
+        }
+
+        segmentStore = new SegmentStore(pointsCopy);
+        int n = pointsCopy.length;
+        if (n < 4) {
+            System.out.println(
+                    "Warning, less than 4 points provided, 0 segments of 4 collinear points found");
+            return;
+        }
+
+        int[] x = new int[n], y = new int[n];
+        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            x[i] = pointsCopy[i].x();
+            y[i] = pointsCopy[i].y();
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+        }
+        // points are sorted by y, so the y range runs from the first to the last
+        if (maxX - minX > Integer.MAX_VALUE || (long) y[n - 1] - y[0] > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Coordinates must span less than 2^31 along each axis");
+
+        SlopeTable table = new SlopeTable(n, x, y);
+        for (int p = 0; p < n; p++) {
+            table.clear();
+            for (int q = 0; q < n; q++)
+                if (q != p)
+                    table.add(SlopeTable.slopeKey(x[q] - x[p], y[q] - y[p]), q);
+            for (int i = 0; i < table.directions(); i++) {
+                int slot = table.slot(i);
+                if (table.count(slot) >= 3 && table.min(slot) > p)
+                    segmentStore.add(p, table.max(slot));
+            }
+        }
+    }
+
+    public int numberOfSegments() { // the number of line segments
+        return segmentStore.size();
+    }
+
+    public LineSegment[] segments() { // the line segments, in a new array (the LineSegments themselves are kept)
+        return segmentStore.toArray();
+    }
+
+    // passes the endpoints of every line segment to the consumer, without creating a LineSegment for it
+    public void forEachSegment(SegmentConsumer consumer) {
+        segmentStore.forEachSegment(consumer);
+    }
+
+    // a read-only view of the line segments, which creates only the LineSegments that are read from it
+    public List<LineSegment> segmentView() {
+        return segmentStore.view();
+    }
+
+    public static void main(String[] args) {
+
+        // read the n points from a file
+        In in = new In(args[0]);
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        // draw the points
+        StdDraw.enableDoubleBuffering();
+        StdDraw.setXscale(0, 32768);
+        StdDraw.setYscale(0, 32768);
+        for (Point p : points) {
+            p.draw();
+        }
+        StdDraw.show();
+
+        // print and draw the line segments
+        HashCollinearPoints collinear = new HashCollinearPoints(points);
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+            segment.draw();
+        }
+        StdDraw.show();
+    }
+}
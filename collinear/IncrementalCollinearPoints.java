@@ -0,0 +1,164 @@
+/* Keeps the maximal segments of 4 or more collinear points up to date while points are added one at a time, instead
+ * of recomputing all of them as FastCollinearPoints would for every new point.
+
+   A segment can only appear or grow through the point being added, so add(p) only looks at the lines through p. It
+   groups the points added before by their direction from p, with the exact reduced-fraction keys of a SlopeTable
+   (as HashCollinearPoints does), filled for p alone and cleared for the next point; the table also tracks the
+   smallest and largest point of every direction. A direction with 3 or more points is a line with 4 or more points
+   once p is on it: if that line had no segment yet, its segment is new, and if p lies beyond one of its endpoints,
+   the segment is extended. Lines with a segment are found in a hash map from the line (its direction and the constant
+   dy * x - dx * y of its points) to the segment's position in a SegmentStore, where an extended segment only has the
+   indices of its endpoints replaced: no LineSegment is created while points are added.
+
+   Every add(p) therefore takes O(n) expected time for the n points so far, and O(n) memory in all. segments() (or
+   segmentView()) returns a read-only view of the store, which follows later additions without being copied again
+   and creates only the LineSegments that are read from it
+*/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class IncrementalCollinearPoints {
+    private Point[] points = new Point[8];
+    private int[] x = new int[8], y = new int[8];
+    private int n = 0;
+    private long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE, minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+    private final Set<Long> taken = new HashSet<>(); // the coordinates of every point, to reject duplicates
+    private SlopeTable table = new SlopeTable(8, x, y);
+
+    private final SegmentStore segmentStore = new SegmentStore(points);
+    private final Map<Line, Integer> lines = new HashMap<>(); // every line with a segment, to its index in the store
+
+    // creates an empty index
+    public IncrementalCollinearPoints() {
+    }
+
+    // creates an index of the given points, added in order
+    public IncrementalCollinearPoints(Point[] points) {
+        if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
+        for (Point p : points)
+            add(p);
+    }
+
+    /* Adds the point and updates the segments through it. Returns the number of segments that were created or
+     * extended, which is 0 if the point only lies inside existing segments or on none at all */
+    public int add(Point p) {
+        if (p == null) throw new IllegalArgumentException("Null value for Point not permitted");
+        long px = p.x(), py = p.y();
+        // the reduced differences of the slope keys must fit an int
+        if (Math.max(maxX, px) - Math.min(minX, px) > Integer.MAX_VALUE
+                || Math.max(maxY, py) - Math.min(minY, py) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Coordinates must span less than 2^31 along each axis");
+        if (!taken.add(px << 32 | (py & 0xFFFFFFFFL)))
+            throw new IllegalArgumentException(String.format("Duplicate point input not allowed: found: %s", p));
+        minX = Math.min(minX, px);
+        maxX = Math.max(maxX, px);
+        minY = Math.min(minY, py);
+        maxY = Math.max(maxY, py);
+
+        if (n == points.length)
+            resize(2 * n);
+        int q = n++;
+        points[q] = p;
+        x[q] = p.x();
+        y[q] = p.y();
+
+        table.clear();
+        for (int i = 0; i < q; i++)
+            table.add(SlopeTable.slopeKey(x[i] - x[q], y[i] - y[q]), i);
+
+        int changed = 0;
+        for (int i = 0; i < table.directions(); i++) {
+            int slot = table.slot(i);
+            if (table.count(slot) < 3)
+                continue;
+            int min = table.less(q, table.min(slot)) ? q : table.min(slot);
+            int max = table.less(table.max(slot), q) ? q : table.max(slot);
+            long key = table.key(slot);
+            long dy = key >> 32, dx = (int) key; // the reduced direction, as packed by slopeKey
+            Line line = new Line(key, dy * x[q] - dx * y[q]);
+            Integer segment = lines.get(line);
+            if (segment == null) {
+                lines.put(line, segmentStore.size());
+                segmentStore.add(min, max);
+                changed++;
+            }
+            else if (segmentStore.start(segment) != min || segmentStore.end(segment) != max) {
+                segmentStore.set(segment, min, max);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private void resize(int capacity) {
+        points = Arrays.copyOf(points, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        table = new SlopeTable(capacity, x, y);
+        segmentStore.setPoints(points);
+    }
+
+    // a line, as its reduced direction (a key of SlopeTable.slopeKey) and the value of dy * x - dx * y on it
+    private static class Line {
+        private final long direction, offset;
+
+        private Line(long direction, long offset) {
+            this.direction = direction;
+            this.offset = offset;
+        }
+
+        public boolean equals(Object other) {
+            if (!(other instanceof Line)) return false;
+            Line that = (Line) other;
+            return direction == that.direction && offset == that.offset;
+        }
+
+        public int hashCode() {
+            return Long.hashCode(direction * 31 + offset);
+        }
+    }
+
+    public int size() { // the number of points added so far
+        return n;
+    }
+
+    public int numberOfSegments() { // the number of line segments
+        return segmentStore.size();
+    }
+
+    public List<LineSegment> segments() { // the line segments, as a read-only view that follows later additions
+        return segmentStore.view();
+    }
+
+    // passes the endpoints of every line segment to the consumer, without creating a LineSegment for it
+    public void forEachSegment(SegmentConsumer consumer) {
+        segmentStore.forEachSegment(consumer);
+    }
+
+    // the same view as segments(), under the name the other detectors use
+    public List<LineSegment> segmentView() {
+        return segmentStore.view();
+    }
+
+    // reads the points of a file and adds them one at a time, printing every segment as soon as it is found or grows
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int n = in.readInt();
+        IncrementalCollinearPoints collinear = new IncrementalCollinearPoints();
+        for (int i = 0; i < n; i++) {
+            Point p = new Point(in.readInt(), in.readInt());
+            if (collinear.add(p) > 0)
+                StdOut.println(String.format("after %s: %d segments", p, collinear.numberOfSegments()));
+        }
+        for (LineSegment segment : collinear.segments())
+            StdOut.println(segment);
+    }
+}
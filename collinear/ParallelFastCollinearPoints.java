@@ -0,0 +1,138 @@
+/* FastCollinearPoints with the reference points spread across a fork-join pool: the same radix sort of slope keys
+ * around every point and the same scan for runs of 3 or more equal slopes (both in SlopeSorter), but on several
+ * threads at once.
+
+   The points are sorted once, in natural order. A task splits its range of reference points in halves until it is at
+   most POINTS_PER_TASK long; a leaf then works with its own SlopeSorter, whose key, order and count arrays are its
+   buffers, so the threads never share anything they write to. For every reference point it keeps the segments whose
+   smallest point is that reference point, exactly as FastCollinearPoints does, in a SegmentStore over the shared
+   sorted points. The stores of both halves are concatenated on the way back up, which copies only their index pairs,
+   so the segments come out in the same order whatever the number of threads, and no LineSegment is created until
+   one is asked for
+*/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelFastCollinearPoints {
+    // below this many reference points a fork-join task runs its range directly instead of splitting it further
+    private static final int POINTS_PER_TASK = 16;
+
+    // the segments, as the indices of their endpoints in the sorted copy of the points
+    private SegmentStore segmentStore;
+
+    // finds all line segments containing 4 or more points, on the common fork-join pool
+    public ParallelFastCollinearPoints(Point[] points) {
+        this(points, ForkJoinPool.commonPool());
+    }
+
+    // as above, using the threads of the provided pool (which is left running)
+    public ParallelFastCollinearPoints(Point[] points, ForkJoinPool pool) {
+        if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
+        if (pool == null) throw new IllegalArgumentException("Null argument for the fork-join pool not permitted");
+        Point[] pointsSorted = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) throw new IllegalArgumentException("Null value for Point in array not permitted");
+            pointsSorted[i] = points[i];
+        }
+        Arrays.sort(pointsSorted);
+        for (int i = 0; i < points.length - 1; i++) {
+            if (pointsSorted[i].compareTo(pointsSorted[i + 1]) == 0) throw new IllegalArgumentException(
+                    String.format("Duplicate point input not allowed: found: %s", pointsSorted[i].toString()));
+        }
+
+        if (points.length < 4) {
+            System.out.println(
+                    "Warning, less than 4 points provided, 0 segments of 4 collinear points found");
+            segmentStore = new SegmentStore(pointsSorted);
+            return;
+        }
+        segmentStore = pool.invoke(new SegmentTask(pointsSorted, 0, pointsSorted.length));
+    }
+
+    // finds the segments whose smallest point is one of the reference points [lo, hi) of the sorted points
+    private static class SegmentTask extends RecursiveTask<SegmentStore> {
+        private static final long serialVersionUID = 1L;
+
+        private final Point[] pointsSorted;
+        private final int lo, hi;
+
+        private SegmentTask(Point[] pointsSorted, int lo, int hi) {
+            this.pointsSorted = pointsSorted;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected SegmentStore compute() {
+            if (hi - lo <= POINTS_PER_TASK) {
+                SlopeSorter sorter = new SlopeSorter(pointsSorted);
+                SegmentStore store = new SegmentStore(pointsSorted);
+                for (int p = lo; p < hi; p++)
+                    sorter.addSegments(p, store);
+                return store;
+            }
+            int mid = (lo + hi) >>> 1;
+            SegmentTask left = new SegmentTask(pointsSorted, lo, mid);
+            SegmentTask right = new SegmentTask(pointsSorted, mid, hi);
+            left.fork();
+            SegmentStore rightSegments = right.compute();
+            SegmentStore segments = left.join();
+            segments.addAll(rightSegments);
+            return segments;
+        }
+    }
+
+    public int numberOfSegments() { // the number of line segments
+        return segmentStore.size();
+    }
+
+    public LineSegment[] segments() { // the line segments, in a new array (the LineSegments themselves are kept)
+        return segmentStore.toArray();
+    }
+
+    // passes the endpoints of every line segment to the consumer, without creating a LineSegment for it
+    public void forEachSegment(SegmentConsumer consumer) {
+        segmentStore.forEachSegment(consumer);
+    }
+
+    // a read-only view of the line segments, which creates only the LineSegments that are read from it
+    public List<LineSegment> segmentView() {
+        return segmentStore.view();
+    }
+
+    public static void main(String[] args) {
+
+        // read the n points from a file
+        In in = new In(args[0]);
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        // draw the points
+        StdDraw.enableDoubleBuffering();
+        StdDraw.setXscale(0, 32768);
+        StdDraw.setYscale(0, 32768);
+        for (Point p : points) {
+            p.draw();
+        }
+        StdDraw.show();
+
+        // print and draw the line segments
+        ParallelFastCollinearPoints collinear = new ParallelFastCollinearPoints(points);
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+            segment.draw();
+        }
+        StdDraw.show();
+    }
+}
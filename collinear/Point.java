@@ -31,6 +31,15 @@ public class Point implements Comparable<Point> {
         this.y = y;
     }
 
+    // the coordinates, for the collinear engines that work on them directly; package-private, so the public API stays as given
+    int x() {
+        return x;
+    }
+
+    int y() {
+        return y;
+    }
+
     /**
      * Draws this point to standard draw.
      */
@@ -0,0 +1,7 @@
+/* Receives the segments of a collinear detector one at a time, as their two endpoints, from forEachSegment(), so that
+ * they can be printed, drawn or counted without a LineSegment (or an array of them) being created for every one */
+
+public interface SegmentConsumer {
+    // called once for every segment, with its smallest and largest point
+    void accept(Point p, Point q);
+}
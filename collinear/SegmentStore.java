@@ -0,0 +1,135 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/* The segments found by a collinear detector, stored compactly: the detector's own array of points is shared, and
+ * every segment is only the pair of indices of its endpoints in that array, in one growing int[]. Nothing is
+ * allocated per segment until a LineSegment is asked for; each one is then created once, and kept for later calls.
+ *
+ * forEachSegment() hands the endpoints to a SegmentConsumer without creating anything, and view() is a read-only
+ * List over the segments that costs nothing to get, and materializes only the LineSegments that are read from it.
+ *
+ * A detector that grows its array of points (IncrementalCollinearPoints) hands the store the larger copy with
+ * setPoints(), and one that extends a segment replaces its endpoints with set(), which drops the LineSegment that was
+ * created for the old ones */
+
+public class SegmentStore {
+    private Point[] points;
+    private int[] ends = new int[8]; // the indices of segment i's endpoints are at 2 * i and 2 * i + 1
+    private int n = 0;
+    private LineSegment[] materialized = new LineSegment[0]; // segment i, once it was asked for, null before
+    private final List<LineSegment> view = new View();
+
+    // creates an empty store of segments between the given points, which is shared, not copied
+    public SegmentStore(Point[] points) {
+        if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
+        this.points = points;
+    }
+
+    // adds the segment between points[p] and points[q]
+    public void add(int p, int q) {
+        checkPoints(p, q);
+        if (2 * n == ends.length)
+            ends = Arrays.copyOf(ends, 2 * ends.length);
+        ends[2 * n] = p;
+        ends[2 * n + 1] = q;
+        n++;
+    }
+
+    // adds all the segments of the other store, which must be over the same array of points, after those of this one
+    public void addAll(SegmentStore other) {
+        if (other == null) throw new IllegalArgumentException("Null argument for the segment store not permitted");
+        if (other.points != points)
+            throw new IllegalArgumentException("Segment stores over different point arrays cannot be merged");
+        if (2 * (n + other.n) > ends.length)
+            ends = Arrays.copyOf(ends, Math.max(2 * ends.length, 2 * (n + other.n)));
+        System.arraycopy(other.ends, 0, ends, 2 * n, 2 * other.n);
+        n += other.n;
+    }
+
+    // replaces the endpoints of segment i by points[p] and points[q]
+    public void set(int i, int p, int q) {
+        checkSegment(i);
+        checkPoints(p, q);
+        ends[2 * i] = p;
+        ends[2 * i + 1] = q;
+        if (i < materialized.length)
+            materialized[i] = null;
+    }
+
+    // shares a new array of points, which holds the same points at the same indices as the old one, and maybe more
+    void setPoints(Point[] points) {
+        if (points == null) throw new IllegalArgumentException("Null argument for point array not permitted");
+        if (points.length < this.points.length)
+            throw new IllegalArgumentException(String.format(
+                    "New point array shorter than the old one: %d < %d", points.length, this.points.length));
+        this.points = points;
+    }
+
+    public int size() { // the number of segments
+        return n;
+    }
+
+    // the index of the first and of the second endpoint of segment i
+    public int start(int i) {
+        checkSegment(i);
+        return ends[2 * i];
+    }
+
+    public int end(int i) {
+        checkSegment(i);
+        return ends[2 * i + 1];
+    }
+
+    // passes the endpoints of every segment to the consumer, in the order they were added
+    public void forEachSegment(SegmentConsumer consumer) {
+        if (consumer == null) throw new IllegalArgumentException("Null argument for the consumer not permitted");
+        for (int i = 0; i < n; i++)
+            consumer.accept(points[ends[2 * i]], points[ends[2 * i + 1]]);
+    }
+
+    // segment i as a LineSegment, created the first time it is asked for
+    public LineSegment segment(int i) {
+        checkSegment(i);
+        if (materialized.length < n)
+            materialized = Arrays.copyOf(materialized, ends.length / 2);
+        if (materialized[i] == null)
+            materialized[i] = new LineSegment(points[ends[2 * i]], points[ends[2 * i + 1]]);
+        return materialized[i];
+    }
+
+    // a read-only view of the segments, which follows later additions
+    public List<LineSegment> view() {
+        return view;
+    }
+
+    // a new array of all the segments, materializing the ones that were not asked for before
+    public LineSegment[] toArray() {
+        LineSegment[] segments = new LineSegment[n];
+        for (int i = 0; i < n; i++)
+            segments[i] = segment(i);
+        return segments;
+    }
+
+    private void checkPoints(int p, int q) {
+        if (p < 0 || p >= points.length || q < 0 || q >= points.length)
+            throw new IllegalArgumentException(
+                    String.format("Point index outside allowable bounds [0,%d): p = %d, q = %d", points.length, p, q));
+    }
+
+    private void checkSegment(int i) {
+        if (i < 0 || i >= n)
+            throw new IndexOutOfBoundsException(
+                    String.format("Segment outside allowable bounds [0,%d): i = %d", n, i));
+    }
+
+    private class View extends AbstractList<LineSegment> {
+        public LineSegment get(int i) {
+            return segment(i);
+        }
+
+        public int size() {
+            return n;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/* The slope sort of FastCollinearPoints and ParallelFastCollinearPoints, with the buffers it needs, which are reused
+ * for every reference point; each thread needs its own.
+
+   The slope of every point to the reference point is computed only once, as a long key that sorts like the slope, and
+   the indices of the points are sorted by these keys with a stable radix sort, so no Comparator is called and no
+   Point is looked at during the sort. The indices start in the natural order of the (sorted) points, so within every
+   group of equal slopes the points stay in natural order, and the first and last of them are the segment's endpoints;
+   the scan for equal slopes then only compares the keys */
+
+import java.util.Arrays;
+
+class SlopeSorter {
+    private final Point[] points; // in natural order
+    private final long[] keys, keysBuffer;
+    private final int[] order, orderBuffer;
+    private final int[][] byteCounts = new int[8][256];
+
+    // a sorter for the given points, which must be sorted in natural order
+    SlopeSorter(Point[] points) {
+        this.points = points;
+        int n = points.length;
+        keys = new long[n];
+        keysBuffer = new long[n];
+        order = new int[n];
+        orderBuffer = new int[n];
+    }
+
+    /* adds to the store every segment of 4 or more points whose smallest point is points[p]: a group of 3 or more
+     * points with the same slope to it, all of which come after it in natural order */
+    void addSegments(int p, SegmentStore segments) {
+        int n = points.length;
+        for (int q = 0; q < n; q++) {
+            keys[q] = slopeKey(points[p].slopeTo(points[q]));
+            order[q] = q;
+        }
+        radixSort(keys, order, keysBuffer, orderBuffer, byteCounts);
+
+        // order[0] is p itself, whose slope to itself is negative infinity; we scan the remaining groups of equal keys
+        int start = 1;
+        for (int i = 2; i <= n; i++) {
+            if (i < n && keys[i] == keys[start])
+                continue;
+            if (i - start >= 3 && p < order[start])
+                segments.add(p, order[i - 1]);
+            start = i;
+        }
+    }
+
+    /* Maps a slope to a long whose unsigned order is the order of the slopes: the bits of a positive double already
+     * sort as unsigned integers once the sign bit is set, and those of a negative double once all of them are flipped.
+     * Slopes are never NaN, and slopeTo() always returns +0.0 for a horizontal line, so equal keys mean equal slopes */
+    private static long slopeKey(double slope) {
+        long bits = Double.doubleToRawLongBits(slope);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /* Stable LSD radix sort of the keys, one byte at a time, carrying the order along. The counts of all 8 bytes are
+     * taken in one pass, and a byte that is the same in every key is skipped (for slopes, often the top ones). The
+     * sorted keys and order end up back in keys[] and order[]; count[][] is scratch space for the counts */
+    private static void radixSort(long[] keys, int[] order, long[] keysBuffer, int[] orderBuffer, int[][] count) {
+        int n = keys.length;
+        for (int[] c : count)
+            Arrays.fill(c, 0);
+        for (long key : keys)
+            for (int b = 0; b < 8; b++)
+                count[b][(int) (key >>> (8 * b)) & 0xFF]++;
+
+        long[] fromKeys = keys, toKeys = keysBuffer;
+        int[] fromOrder = order, toOrder = orderBuffer;
+        for (int b = 0; b < 8; b++) {
+            int[] c = count[b];
+            if (c[(int) (fromKeys[0] >>> (8 * b)) & 0xFF] == n) // every key has the same byte here
+                continue;
+            // turn the counts into the index where each byte value starts
+            for (int v = 0, sum = 0; v < 256; v++) {
+                int size = c[v];
+                c[v] = sum;
+                sum += size;
+            }
+            for (int i = 0; i < n; i++) {
+                int slot = c[(int) (fromKeys[i] >>> (8 * b)) & 0xFF]++;
+                toKeys[slot] = fromKeys[i];
+                toOrder[slot] = fromOrder[i];
+            }
+            long[] keysSwap = fromKeys;
+            fromKeys = toKeys;
+            toKeys = keysSwap;
+            int[] orderSwap = fromOrder;
+            fromOrder = toOrder;
+            toOrder = orderSwap;
+        }
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, n);
+            System.arraycopy(fromOrder, 0, order, 0, n);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/* The slope index of the hash-based collinear engines (HashCollinearPoints and IncrementalCollinearPoints): an
+ * open-addressing hash table from the directions out of one reference point to the number of points in each, and the
+ * smallest and largest of them, in parallel primitive arrays.
+
+   A direction is the exact reduced fraction of slopeKey(), so two points are on the same line through the reference
+   point exactly when their keys are equal. Points are given as indices into the engine's coordinate arrays, which
+   the table compares them by (y first, then x, as Point.compareTo() does). The table is sized once for the number of
+   directions a reference point can have, and cleared between reference points by resetting only the slots that were
+   used. Key 0 (dx = dy = 0) cannot occur between distinct points, so it marks an empty slot */
+
+class SlopeTable {
+    private final int[] x, y;
+    private final long[] keys;
+    private final int[] count, min, max;
+    private final int[] usedSlots;
+    private int used;
+    private final int shift;
+
+    // a table for up to capacity directions between the points whose coordinates are x[i], y[i]
+    SlopeTable(int capacity, int[] x, int[] y) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1; // at most half full
+        this.x = x;
+        this.y = y;
+        keys = new long[slots];
+        count = new int[slots];
+        min = new int[slots];
+        max = new int[slots];
+        usedSlots = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+    }
+
+    // the direction (dx, dy) as a reduced fraction with a normalized sign (dx > 0, or dx = 0 and dy = 1), dy in the
+    // high and dx in the low 32 bits; both must fit an int
+    static long slopeKey(int dx, int dy) {
+        if (dx < 0 || (dx == 0 && dy < 0)) {
+            dx = -dx;
+            dy = -dy;
+        }
+        int g = gcd(Math.abs(dx), Math.abs(dy));
+        return ((long) (dy / g) << 32) | ((dx / g) & 0xFFFFFFFFL);
+    }
+
+    // Euclid's algorithm; gcd(a, 0) = a
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    // forgets every direction, ready for the next reference point
+    void clear() {
+        for (int i = 0; i < used; i++)
+            keys[usedSlots[i]] = 0;
+        used = 0;
+    }
+
+    // counts point index under the key
+    void add(long key, int index) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        while (keys[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            count[slot] = 1;
+            min[slot] = index;
+            max[slot] = index;
+            usedSlots[used++] = slot;
+            return;
+        }
+        count[slot]++;
+        if (less(index, min[slot])) min[slot] = index;
+        if (less(max[slot], index)) max[slot] = index;
+    }
+
+    // is point i smaller than point j, in the order of Point.compareTo()?
+    boolean less(int i, int j) {
+        return y[i] < y[j] || (y[i] == y[j] && x[i] < x[j]);
+    }
+
+    // the number of directions added since the last clear(), and the slot of the i-th of them
+    int directions() {
+        return used;
+    }
+
+    int slot(int i) {
+        return usedSlots[i];
+    }
+
+    // the key of the direction in a slot, its number of points, and the smallest and largest of them
+    long key(int slot) {
+        return keys[slot];
+    }
+
+    int count(int slot) {
+        return count[slot];
+    }
+
+    int min(int slot) {
+        return min[slot];
+    }
+
+    int max(int slot) {
+        return max[slot];
+    }
+}
@@ -0,0 +1,51 @@
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+import java.util.Arrays;
+
+/* UnionFind engine backed by the algs4 WeightedQuickUnionUF (weighted quick union, no path compression),
+ * with the flags of every site kept in a separate byte array, and the size of every component at its root
+ * (WeightedQuickUnionUF keeps its own sizes, but does not expose them) */
+
+public class AlgsUnionFind implements UnionFind {
+    private final WeightedQuickUnionUF tree;
+    private final byte[] siteState;
+    private final int[] size;
+
+    // creates n sites, each in its own component and with no flags set
+    public AlgsUnionFind(int n) {
+        tree = new WeightedQuickUnionUF(n);
+        siteState = new byte[n];
+        size = new int[n];
+        Arrays.fill(size, 1);
+    }
+
+    public int find(int p) {
+        return tree.find(p);
+    }
+
+    public int union(int p, int q) {
+        int parentP = tree.find(p);
+        int parentQ = tree.find(q);
+        if (parentP == parentQ)
+            return parentP;
+        byte temp = (byte) (siteState[parentP] | siteState[parentQ]);
+        siteState[parentP] = temp;
+        siteState[parentQ] = temp;
+        tree.union(parentP, parentQ);
+        int root = tree.find(parentP);
+        size[root] = size[parentP] + size[parentQ];
+        return root;
+    }
+
+    public byte flags(int p) {
+        return siteState[p];
+    }
+
+    public void addFlags(int p, byte flags) {
+        siteState[p] |= flags;
+    }
+
+    public int size(int p) {
+        return size[p];
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/* UnionFind engine on flat int arrays, with union by size and path halving.
+ * A non-negative entry of parent[] is the index of the parent of a site. A negative entry marks a root, and holds the
+ * complement of its flags, so the flags of a component live in the same slot as its root and need no separate lookup.
+ * Sites only ever get linked under another one once they are open, so a non-root site always reports OPEN.
+ * The size of every component is kept in size[] at its root */
+
+public class CompactUnionFind implements UnionFind {
+    private static final int FLAG_MASK = 0b111;
+
+    private final int[] parent;
+    private final int[] size;
+
+    // creates n sites, each in its own component and with no flags set
+    public CompactUnionFind(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException(String.format("Number of sites must not be negative: n = %d", n));
+        parent = new int[n];
+        size = new int[n];
+        Arrays.fill(parent, ~0); // a root with no flags
+        Arrays.fill(size, 1);
+    }
+
+    public int find(int p) {
+        int q;
+        // path halving: every site on the way up is pointed at its grandparent
+        while ((q = parent[p]) >= 0) {
+            int r = parent[q];
+            if (r < 0)
+                return q;
+            parent[p] = r;
+            p = r;
+        }
+        return p;
+    }
+
+    public int union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ)
+            return rootP;
+        int flags = ~parent[rootP] | ~parent[rootQ];
+        if (size[rootP] < size[rootQ]) {
+            int temp = rootP;
+            rootP = rootQ;
+            rootQ = temp;
+        }
+        parent[rootQ] = rootP;
+        parent[rootP] = ~flags;
+        size[rootP] += size[rootQ];
+        return rootP;
+    }
+
+    public byte flags(int p) {
+        int entry = parent[p];
+        if (entry >= 0)
+            return OPEN;
+        return (byte) (~entry & FLAG_MASK);
+    }
+
+    public void addFlags(int p, byte flags) {
+        parent[p] = ~(~parent[p] | flags);
+    }
+
+    public int size(int p) {
+        return size[p];
+    }
+}
@@ -0,0 +1,230 @@
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/* Percolation for grids too large for Percolation, whose int site indices overflow once n > 46340 and whose arrays
+ * live on the heap. Sites are indexed with longs, site = (row - 1) * n + (col - 1), and all state is kept outside
+ * the heap, either in direct ByteBuffers or in files mapped into memory, in chunks of at most 1 GiB:
+ *
+ * - one long per site for the union-find: 0 for a blocked site, parent index + 1 for an open site that is not a root,
+ *   and the complement of the rank of the tree (so a negative value) for an open root;
+ * - 2 bits per site for the CONNECTED_TO_TOP / CONNECTED_TO_BOTTOM flags, only kept up to date at roots.
+ *
+ * That is a little over 8 bytes per site, 80 GB for a 100k x 100k grid. Direct buffers count against
+ * -XX:MaxDirectMemorySize (by default as large as the heap), mapped files only against the address space and disk.
+ * Both start out zeroed, which is exactly the all-blocked grid, so nothing needs to be initialized up front */
+
+public class LargePercolation {
+    private static final int CONNECTED_TO_BOTTOM = 0b01, CONNECTED_TO_TOP = 0b10,
+            CONNECTED_TO_BOTH = 0b11;
+    private static final int FLAGS_PER_WORD = 32; // 2 bits per site in every long
+
+    private final int n;
+    private final LongArray parent;
+    private final LongArray flags;
+    private long numOpen; // number of open sites
+    private boolean percolates;
+
+    // creates n-by-n grid, with all sites initially blocked, kept in direct (off-heap) buffers
+    public LargePercolation(int n) {
+        this(n, null);
+    }
+
+    // creates n-by-n grid, with all sites initially blocked, kept in files mapped from the given directory
+    // (if directory is null, direct buffers are used instead); the files are left behind for the caller to remove
+    public LargePercolation(int n, Path directory) {
+        if (n < 1)
+            throw new IllegalArgumentException(
+                    "Invalid n argument provided, must be an integer > 0");
+        this.n = n;
+        long sites = (long) n * n;
+        long words = (sites + FLAGS_PER_WORD - 1) / FLAGS_PER_WORD;
+        if (directory == null) {
+            parent = new LongArray(sites, null);
+            flags = new LongArray(words, null);
+        }
+        else {
+            parent = new LongArray(sites, directory.resolve("parent.bin"));
+            flags = new LongArray(words, directory.resolve("flags.bin"));
+        }
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        checkException(row, col);
+        long site = (long) (row - 1) * n + (col - 1);
+        if (parent.get(site) != 0)
+            return;
+        parent.set(site, ~0L); // an open root of rank 0
+        numOpen += 1;
+        int state = 0;
+        if (row == 1)
+            state |= CONNECTED_TO_TOP;
+        if (row == n)
+            state |= CONNECTED_TO_BOTTOM;
+        addFlags(site, state);
+        long root = site;
+        if (row > 1)
+            root = updateNodes(root, site - n);
+        if (row < n)
+            root = updateNodes(root, site + n);
+        if (col > 1)
+            root = updateNodes(root, site - 1);
+        if (col < n)
+            root = updateNodes(root, site + 1);
+        if (flags(root) == CONNECTED_TO_BOTH)
+            percolates = true;
+    }
+
+    // joins the component with the given root to the adjacent site if that one is open, returning the new root
+    private long updateNodes(long root, long adjacent) {
+        if (parent.get(adjacent) == 0)
+            return root;
+        long other = find(adjacent);
+        if (other == root)
+            return root;
+        long rankRoot = ~parent.get(root), rankOther = ~parent.get(other);
+        int state = flags(root) | flags(other);
+        if (rankRoot < rankOther) {
+            long temp = root;
+            root = other;
+            other = temp;
+        }
+        else if (rankRoot == rankOther)
+            parent.set(root, ~(rankRoot + 1));
+        parent.set(other, root + 1);
+        addFlags(root, state);
+        return root;
+    }
+
+    // root of the (open) site's component, pointing every site on the way up at its grandparent (path halving)
+    private long find(long site) {
+        long up;
+        while ((up = parent.get(site)) > 0) {
+            long grandparent = parent.get(up - 1);
+            if (grandparent < 0)
+                return up - 1;
+            parent.set(site, grandparent);
+            site = grandparent - 1;
+        }
+        return site;
+    }
+
+    private int flags(long site) {
+        return (int) (flags.get(site / FLAGS_PER_WORD) >>> ((site % FLAGS_PER_WORD) * 2)) & CONNECTED_TO_BOTH;
+    }
+
+    private void addFlags(long site, int state) {
+        if (state == 0)
+            return;
+        long word = site / FLAGS_PER_WORD;
+        flags.set(word, flags.get(word) | ((long) state << ((site % FLAGS_PER_WORD) * 2)));
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        checkException(row, col);
+        return parent.get((long) (row - 1) * n + (col - 1)) != 0;
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        checkException(row, col);
+        long site = (long) (row - 1) * n + (col - 1);
+        return parent.get(site) != 0 && (flags(find(site)) & CONNECTED_TO_TOP) == CONNECTED_TO_TOP;
+    }
+
+    // returns the number of open sites
+    public long numberOfOpenSites() {
+        return numOpen;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    private void checkException(int row, int col) {
+        if (row < 1 || row > n || col < 1 || col > n)
+            throw new IllegalArgumentException(
+                    String.format("Row or col outside allowable bounds [1,%d]: col = %d, row = %d",
+                                  n, row, col));
+    }
+
+    // array of longs indexed by a long, split into chunks of at most 2^27 longs (1 GiB) outside the heap
+    private static class LongArray {
+        private static final int CHUNK_BITS = 27;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+        private final LongBuffer[] chunks;
+
+        // zeroed array of the given length, in direct buffers or, if file is not null, mapped from that file
+        private LongArray(long length, Path file) {
+            long count = (length + CHUNK_MASK) >>> CHUNK_BITS;
+            if (count > Integer.MAX_VALUE)
+                throw new IllegalArgumentException(String.format("Array too large: length = %d", length));
+            chunks = new LongBuffer[(int) count];
+            if (file == null) {
+                for (int i = 0; i < chunks.length; i++)
+                    chunks[i] = ByteBuffer.allocateDirect(chunkBytes(length, i)).order(ByteOrder.nativeOrder())
+                                          .asLongBuffer();
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                                                        StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.SPARSE)) {
+                for (int i = 0; i < chunks.length; i++) // the mappings stay valid once the channel is closed
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, ((long) i << CHUNK_BITS) * Long.BYTES,
+                                            chunkBytes(length, i)).order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static int chunkBytes(long length, int chunk) {
+            long start = (long) chunk << CHUNK_BITS;
+            return (int) Math.min(CHUNK_MASK + 1, length - start) * Long.BYTES;
+        }
+
+        private long get(long i) {
+            return chunks[(int) (i >>> CHUNK_BITS)].get((int) (i & CHUNK_MASK));
+        }
+
+        private void set(long i, long value) {
+            chunks[(int) (i >>> CHUNK_BITS)].put((int) (i & CHUNK_MASK), value);
+        }
+    }
+
+    // test client: n [directory], opens random sites until the system percolates
+    public static void main(String[] args) throws IOException {
+        int n = Integer.parseInt(args[0]);
+        Path directory = null;
+        if (args.length > 1)
+            directory = Files.createTempDirectory(Paths.get(args[1]), "percolation");
+        Stopwatch timer = new Stopwatch();
+        LargePercolation test = new LargePercolation(n, directory);
+        SplittableRandom random = new SplittableRandom();
+        long attempts = 0;
+        while (!test.percolates()) {
+            test.open(random.nextInt(1, n + 1), random.nextInt(1, n + 1));
+            attempts++;
+        }
+        System.out.println(String.format(
+                "%dx%d system percolates after %d opened sites (fraction %f), and after %d attempts at opening sites",
+                n, n, test.numberOfOpenSites(), (double) test.numberOfOpenSites() / ((double) n * n), attempts));
+        System.out.println(timer.elapsedTime());
+        if (directory != null)
+            System.out.println("State files left in " + directory);
+    }
+}
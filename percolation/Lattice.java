@@ -0,0 +1,126 @@
+/* Neighbor topology of a hypercubic lattice with side n in d dimensions (a square grid for d = 2, a cubic one for
+ * d = 3), whose sites are numbered 0..n^d-1 with the first axis varying fastest. The last axis is the one along
+ * which percolation is checked: its first layer of sites is the top and its last layer the bottom. For d = 2 this is
+ * the same row-major layout as Percolation, with rows along the last axis.
+ *
+ * With periodic boundaries, every axis but the last one wraps around (a torus), so a site on the edge has a neighbor
+ * on the opposite edge. The step to every neighbor is precomputed per direction, both the inner one and the one used
+ * when wrapping around, so finding the neighbors of a site only takes one division and one compare per axis */
+
+public class Lattice {
+    private final int n, dimensions, sites;
+    private final int[] stride; // distance between two sites that are neighbors along each axis
+    private final int[] step;   // index step to the neighbor in each direction: 2 * axis for -, 2 * axis + 1 for +
+    private final int[] wrap;   // index step in each direction from a site on that edge, if the axis wraps around
+    private final boolean[] wraps; // does each axis wrap around?
+
+    // creates a lattice with side n in the given number of dimensions, with or without periodic boundaries
+    public Lattice(int n, int dimensions, boolean periodic) {
+        if (n < 1 || dimensions < 1)
+            throw new IllegalArgumentException(String.format(
+                    "Side and dimensions must be positive integers: n = %d, dimensions = %d", n, dimensions));
+        long count = 1;
+        stride = new int[dimensions];
+        for (int axis = 0; axis < dimensions; axis++) {
+            stride[axis] = (int) count;
+            count *= n;
+            if (count > Integer.MAX_VALUE)
+                throw new IllegalArgumentException(String.format(
+                        "Lattice too large, n^dimensions must fit an int: n = %d, dimensions = %d", n, dimensions));
+        }
+        this.n = n;
+        this.dimensions = dimensions;
+        sites = (int) count;
+        step = new int[2 * dimensions];
+        wrap = new int[2 * dimensions];
+        wraps = new boolean[dimensions];
+        for (int axis = 0; axis < dimensions; axis++) {
+            step[2 * axis] = -stride[axis];
+            step[2 * axis + 1] = stride[axis];
+            wrap[2 * axis] = (n - 1) * stride[axis];
+            wrap[2 * axis + 1] = -(n - 1) * stride[axis];
+            // the last axis never wraps, or every system would trivially connect top and bottom; a side of 1 or 2
+            // would make a site its own neighbor or count the same neighbor twice
+            wraps[axis] = periodic && axis < dimensions - 1 && n > 2;
+        }
+    }
+
+    // an n-by-n square lattice
+    public static Lattice square(int n, boolean periodic) {
+        return new Lattice(n, 2, periodic);
+    }
+
+    // an n-by-n-by-n cubic lattice
+    public static Lattice cubic(int n, boolean periodic) {
+        return new Lattice(n, 3, periodic);
+    }
+
+    // length of every side
+    public int side() {
+        return n;
+    }
+
+    // number of axes
+    public int dimensions() {
+        return dimensions;
+    }
+
+    // number of sites
+    public int sites() {
+        return sites;
+    }
+
+    // number of directions, and so the most neighbors a site can have
+    public int degree() {
+        return 2 * dimensions;
+    }
+
+    // number of sites in one layer across the last axis, e.g. in the top layer
+    public int layer() {
+        return stride[dimensions - 1];
+    }
+
+    // is the site in the first layer along the last axis?
+    public boolean isTop(int site) {
+        return site < layer();
+    }
+
+    // is the site in the last layer along the last axis?
+    public boolean isBottom(int site) {
+        return site >= sites - layer();
+    }
+
+    // the neighbor of the site in the given direction (2 * axis for -, 2 * axis + 1 for +), -1 if there is none
+    public int neighbor(int site, int direction) {
+        int axis = direction >> 1;
+        int coordinate = (site / stride[axis]) % n;
+        boolean edge = (direction & 1) == 0 ? coordinate == 0 : coordinate == n - 1;
+        if (!edge)
+            return site + step[direction];
+        return wraps[axis] ? site + wrap[direction] : -1;
+    }
+
+    // writes the neighbors of the site into neighbors[] (which must hold degree() entries) and returns their number
+    public int neighbors(int site, int[] neighbors) {
+        int count = 0;
+        for (int axis = 0, direction = 0; axis < dimensions; axis++, direction += 2) {
+            int coordinate = (site / stride[axis]) % n;
+            if (coordinate > 0)
+                neighbors[count++] = site + step[direction];
+            else if (wraps[axis])
+                neighbors[count++] = site + wrap[direction];
+            if (coordinate < n - 1)
+                neighbors[count++] = site + step[direction + 1];
+            else if (wraps[axis])
+                neighbors[count++] = site + wrap[direction + 1];
+        }
+        return count;
+    }
+
+    // throws an IllegalArgumentException if the site is not on the lattice
+    public void checkSite(int site) {
+        if (site < 0 || site >= sites)
+            throw new IllegalArgumentException(
+                    String.format("Site outside allowable bounds [0,%d): site = %d", sites, site));
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
+
+/* Percolation on any Lattice (2D or 3D, with or without periodic boundaries), in one of two modes:
+ *
+ * - site percolation: sites are opened one by one and joined to their open neighbors, as in Percolation;
+ * - bond percolation: every site is open from the start, and the bonds between neighbors are opened one by one.
+ *   Bond b = site * dimensions + axis joins a site to its neighbor in the + direction of that axis.
+ *
+ * Both use the same flag-propagation trick as Percolation: the sites of the top and bottom layers start with the
+ * CONNECTED_TO_TOP / CONNECTED_TO_BOTTOM flags, every union ORs the flags of both components into the new root, and
+ * the system percolates as soon as a root carries both */
+
+public class LatticePercolation {
+    private static final byte OPEN = UnionFind.OPEN, CONNECTED_TO_BOTTOM = UnionFind.CONNECTED_TO_BOTTOM,
+            CONNECTED_TO_TOP = UnionFind.CONNECTED_TO_TOP,
+            OPEN_CONNECTED_TO_TOP = UnionFind.OPEN_CONNECTED_TO_TOP,
+            CONNECTED_TO_BOTH = UnionFind.CONNECTED_TO_BOTH;
+
+    private final Lattice lattice;
+    private final boolean bonds;
+    private final UnionFind siteTree;
+    private final int[] neighbors; // scratch buffer for the neighbors of the site being opened
+    private boolean percolates;
+    private int numOpen; // number of open sites, or of open bonds in bond mode
+    private final boolean[] bondOpen;
+
+    // creates a system on the lattice with all sites (or, in bond mode, all bonds) initially blocked
+    public LatticePercolation(Lattice lattice, boolean bonds) {
+        this(lattice, bonds, CompactUnionFind::new);
+    }
+
+    // as above, using the union-find engine built by engine.apply(sites)
+    public LatticePercolation(Lattice lattice, boolean bonds, IntFunction<UnionFind> engine) {
+        if (lattice == null || engine == null)
+            throw new IllegalArgumentException("Null argument provided for the lattice or the union-find engine");
+        this.lattice = lattice;
+        this.bonds = bonds;
+        int sites = lattice.sites();
+        siteTree = engine.apply(sites);
+        neighbors = new int[lattice.degree()];
+        bondOpen = bonds ? new boolean[sites * lattice.dimensions()] : null;
+        for (int i = 0, layer = lattice.layer(); i < layer; i++) {
+            siteTree.addFlags(i, CONNECTED_TO_TOP);
+            siteTree.addFlags(sites - 1 - i, CONNECTED_TO_BOTTOM);
+        }
+        if (bonds) {
+            for (int site = 0; site < sites; site++)
+                siteTree.addFlags(site, OPEN);
+            // a lattice one layer thick percolates without any bond
+            percolates = (siteTree.flags(0) & CONNECTED_TO_BOTH) == CONNECTED_TO_BOTH;
+        }
+    }
+
+    public Lattice lattice() {
+        return lattice;
+    }
+
+    // opens the site if it is not open already (site percolation only, IllegalStateException in bond mode)
+    public void open(int site) {
+        if (bonds)
+            throw new IllegalStateException("Sites are always open in bond percolation, open bonds instead");
+        lattice.checkSite(site);
+        if ((siteTree.flags(site) & OPEN) == OPEN)
+            return;
+        siteTree.addFlags(site, OPEN);
+        numOpen += 1;
+        int root = site;
+        for (int i = 0, count = lattice.neighbors(site, neighbors); i < count; i++)
+            if ((siteTree.flags(neighbors[i]) & OPEN) == OPEN)
+                root = siteTree.union(root, neighbors[i]);
+        if (siteTree.flags(root) == CONNECTED_TO_BOTH)
+            percolates = true;
+    }
+
+    // number of bond indices, some of which may not exist on a lattice without periodic boundaries
+    public int bonds() {
+        return lattice.sites() * lattice.dimensions();
+    }
+
+    // does the bond exist, i.e. does its site have a neighbor in the + direction of its axis?
+    public boolean hasBond(int bond) {
+        if (bond < 0 || bond >= bonds())
+            return false;
+        int dimensions = lattice.dimensions();
+        return lattice.neighbor(bond / dimensions, 2 * (bond % dimensions) + 1) >= 0;
+    }
+
+    // opens the bond if it is not open already (bond percolation only, IllegalStateException in site mode)
+    public void openBond(int bond) {
+        if (!bonds)
+            throw new IllegalStateException("Bonds are not used in site percolation, open sites instead");
+        if (!hasBond(bond))
+            throw new IllegalArgumentException(String.format("No such bond on this lattice: bond = %d", bond));
+        if (bondOpen[bond])
+            return;
+        bondOpen[bond] = true;
+        numOpen += 1;
+        int dimensions = lattice.dimensions();
+        int site = bond / dimensions;
+        int root = siteTree.union(site, lattice.neighbor(site, 2 * (bond % dimensions) + 1));
+        if (siteTree.flags(root) == CONNECTED_TO_BOTH)
+            percolates = true;
+    }
+
+    // is the site open?
+    public boolean isOpen(int site) {
+        lattice.checkSite(site);
+        return (siteTree.flags(site) & OPEN) == OPEN;
+    }
+
+    // is the site full, i.e. connected to the top layer through open sites (or bonds)?
+    public boolean isFull(int site) {
+        lattice.checkSite(site);
+        return (siteTree.flags(site) & OPEN) == OPEN
+                && (siteTree.flags(siteTree.find(site)) & OPEN_CONNECTED_TO_TOP) == OPEN_CONNECTED_TO_TOP;
+    }
+
+    // returns the number of open sites, or of open bonds in bond percolation
+    public int numberOfOpenSites() {
+        return numOpen;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /* Runs a single trial on the lattice, opening sites (or bonds) in the order of a lazily built Fisher-Yates
+     * shuffle until the system percolates, and returns the fraction of open sites (or of existing bonds). A lattice
+     * of side 1 is a single layer, which percolates in bond mode with no bond open; as it has no bonds at all either,
+     * its bond threshold is defined as 0 instead of 0 / 0 */
+    public static double threshold(Lattice lattice, boolean bonds, RandomGenerator random) {
+        LatticePercolation test = new LatticePercolation(lattice, bonds);
+        int count = bonds ? test.bonds() : lattice.sites();
+        int[] order = new int[count];
+        int existing = 0;
+        for (int i = 0; i < count; i++)
+            if (!bonds || test.hasBond(i))
+                order[existing++] = i;
+        for (int i = 0; !test.percolates(); i++) {
+            int swap = random.nextInt(i, existing);
+            int next = order[swap];
+            order[swap] = order[i];
+            order[i] = next;
+            if (bonds)
+                test.openBond(next);
+            else test.open(next);
+        }
+        if (existing == 0)
+            return 0;
+        return (double) test.numberOfOpenSites() / existing;
+    }
+
+    // test client: n dimensions trials [periodic] [bond], e.g. "64 3 20 periodic" for 3D site percolation on a torus
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int dimensions = Integer.parseInt(args[1]);
+        int trials = Integer.parseInt(args[2]);
+        boolean periodic = false, bonds = false;
+        for (int i = 3; i < args.length; i++) {
+            periodic |= args[i].equals("periodic");
+            bonds |= args[i].equals("bond");
+        }
+        Lattice lattice = new Lattice(n, dimensions, periodic);
+        SplittableRandom random = new SplittableRandom();
+        RunningStats thresholds = new RunningStats();
+        for (int t = 0; t < trials; t++)
+            thresholds.add(threshold(lattice, bonds, random));
+        System.out.println(String.format("%s percolation, side %d, %d dimensions%s", bonds ? "bond" : "site", n,
+                                         dimensions, periodic ? ", periodic" : ""));
+        System.out.println(String.format("mean                    = %f", thresholds.mean()));
+        System.out.println(String.format("stddev                  = %f", thresholds.stddev()));
+        System.out.println(String.format("95%% confidence interval = [%f, %f]", thresholds.confidenceLo(),
+                                         thresholds.confidenceHi()));
+    }
+}
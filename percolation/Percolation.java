@@ -1,41 +1,57 @@
 import edu.princeton.cs.algs4.StdRandom;
 import edu.princeton.cs.algs4.Stopwatch;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
 
-/* Program that uses the Weighted Quick Union Find Data Structure in order to Simulate when percolation occurs in an N by N 2D particle system. 
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/* Program that uses a Weighted Quick Union Find Data Structure in order to Simulate when percolation occurs in an N by N 2D particle system. 
  * Percolation refers to the movement and filtering of fluids through porous materials, 
  * and occurs when a continuous path of "conducting" particles has been found from top to bottom
  *
  * In my implementation, system percolates after we encounter a current node whose parent has both the
- * connected-to-top and connected-to-bottom flags on, after which we set the percolates boolean flag to be true */
+ * connected-to-top and connected-to-bottom flags on, after which we set the percolates boolean flag to be true
+ *
+ * The union-find engine (and the per-site flags it keeps) sits behind the UnionFind interface: CompactUnionFind by
+ * default, or any other engine, e.g. AlgsUnionFind, through the second constructor */
 
 public class Percolation {
-    // we use bytes for these flags in order to manipulate them easily using bitwise OR operations
-    private static final byte OPEN = 0b001, CONNECTED_TO_BOTTOM = 0b010, CONNECTED_TO_TOP = 0b100,
-            OPEN_CONNECTED_TO_TOP = 0b101,
-            CONNECTED_TO_BOTH = 0b111;
+    // values written by snapshot(byte[]) for every site
+    public static final byte BLOCKED = 0, OPEN_SITE = 1, FULL_SITE = 2;
+
+    private static final byte OPEN = UnionFind.OPEN, CONNECTED_TO_BOTTOM = UnionFind.CONNECTED_TO_BOTTOM,
+            CONNECTED_TO_TOP = UnionFind.CONNECTED_TO_TOP,
+            OPEN_CONNECTED_TO_TOP = UnionFind.OPEN_CONNECTED_TO_TOP,
+            CONNECTED_TO_BOTH = UnionFind.CONNECTED_TO_BOTH;
 
-    private byte[] siteState;
     private boolean percolates;
-    private final WeightedQuickUnionUF siteTree;
+    private final UnionFind siteTree;
     private final int n;
     private int numOpen; // number of open sites
+    private int clusters; // number of components of open sites
+    private int largestCluster; // number of sites in the largest component
+    private int openAtPercolation = -1; // number of open sites when the system started to percolate
 
     // creates n-by-n grid, with all sites initially blocked
     public Percolation(int number) {
+        this(number, CompactUnionFind::new);
+    }
+
+    // creates n-by-n grid, with all sites initially blocked, using the union-find engine built by engine.apply(sites)
+    public Percolation(int number, IntFunction<UnionFind> engine) {
         if (number < 1)
             throw new IllegalArgumentException(
                     "Invalid n argument provided, must be an integer > 0");
+        if (engine == null)
+            throw new IllegalArgumentException("Null argument provided for the union-find engine");
         numOpen = 0;
         n = number;
         int nsq = n * n;
-        siteTree = new WeightedQuickUnionUF(
+        siteTree = engine.apply(
                 nsq + 1); // we leave entry 0 unused in order to simplify calculations
         percolates = false;
-        siteState = new byte[nsq + 1];
         for (int i = 1; i <= n; i++) {
-            siteState[i] |= CONNECTED_TO_TOP;
-            siteState[nsq + 1 - i] |= CONNECTED_TO_BOTTOM;
+            siteTree.addFlags(i, CONNECTED_TO_TOP);
+            siteTree.addFlags(nsq + 1 - i, CONNECTED_TO_BOTTOM);
         }
 
     }
@@ -43,39 +59,75 @@ public class Percolation {
     // opens the site (row, col) if it is not open already
     public void open(int row, int col) {
         checkException(row, col);
-        if (!isOpen(row, col)) {
-            siteState[(row - 1) * n + col] |= OPEN;
+        openSite((row - 1) * n + col);
+    }
+
+    // opens the site with flat index site = (row - 1) * n + (col - 1), in [0, n*n), if it is not open already
+    public void open(int site) {
+        if (site < 0 || site >= n * n)
+            throw new IllegalArgumentException(
+                    String.format("Site outside allowable bounds [0,%d): site = %d", n * n, site));
+        openSite(site + 1);
+    }
+
+    // opens all the sites with the given flat indices, checking the bounds of the whole batch before opening any
+    public void openAll(int[] sites) {
+        if (sites == null)
+            throw new IllegalArgumentException("Null argument provided for the sites to open");
+        int nsq = n * n;
+        for (int site : sites)
+            if (site < 0 || site >= nsq)
+                throw new IllegalArgumentException(
+                        String.format("Site outside allowable bounds [0,%d): site = %d", nsq, site));
+        for (int site : sites)
+            openSite(site + 1);
+    }
+
+    /* Opens the site at the given (already checked) index of the union-find. Neighbors are reached by adding or
+     * subtracting 1 or n from the index, so they need neither row/col arithmetic nor bounds checks of their own.
+     * We keep hold of the root of the new site's component as it grows, so checking the flags for percolation
+     * afterwards needs no extra find. The system can only start percolating when a new site is opened */
+    private void openSite(int index) {
+        if ((siteTree.flags(index) & OPEN) != OPEN) {
+            siteTree.addFlags(index, OPEN);
             numOpen += 1;
-            if (row > 1) // if there exists a lower index row above, check for a neighbor above
-                updateNodes(row, -1, col, 0);
-            if (row < n) // if there exists a larger index row below, check for a neighbor below
-                updateNodes(row, 1, col, 0);
-            if (col > 1) // if there exists a column to the left, check for a neighbor to the left
-                updateNodes(row, 0, col, -1);
-            if (col < n) // if there exists a column to the right, check for a neighbor to the right
-                updateNodes(row, 0, col, 1);
+            clusters += 1;
+            int root = index; // the new site is still a component of its own
+            int col = (index - 1) % n; // 0-based column, used to tell whether we are on the left or right edge
+            if (index > n) // if there exists a lower index row above, check for a neighbor above
+                root = updateNodes(root, index - n);
+            if (index <= n * n - n) // if there exists a larger index row below, check for a neighbor below
+                root = updateNodes(root, index + n);
+            if (col > 0) // if there exists a column to the left, check for a neighbor to the left
+                root = updateNodes(root, index - 1);
+            if (col < n - 1) // if there exists a column to the right, check for a neighbor to the right
+                root = updateNodes(root, index + 1);
+            // components only ever grow by taking in the site that was just opened, so these stay O(1) to update
+            if (siteTree.size(root) > largestCluster)
+                largestCluster = siteTree.size(root);
+            if (!percolates && siteTree.flags(root) == CONNECTED_TO_BOTH) {
+                percolates = true;
+                openAtPercolation = numOpen;
+            }
         }
-        if (siteState[siteTree.find((row - 1) * n + col)] == CONNECTED_TO_BOTH)
-            percolates = true;
-    }
-
-    private void updateNodes(int row, int rowOffset, int col, int colOffset) {
-        int parentCurr, parentAdj;
-        byte temp;
-        if (isOpen(row + rowOffset, col + colOffset)) {
-            parentCurr = siteTree.find((row - 1) * n + col);
-            parentAdj = siteTree.find((row - 1 + rowOffset) * n + col + colOffset);
-            temp = (byte) (siteState[parentCurr] | siteState[parentAdj]);
-            siteState[parentCurr] = temp;
-            siteState[parentAdj] = temp;
-            siteTree.union(parentCurr, parentAdj);
+    }
+
+    // joins the component with the given root to the adjacent site if that one is open, returning the new root
+    private int updateNodes(int root, int adjacent) {
+        if ((siteTree.flags(adjacent) & OPEN) == OPEN) {
+            int parentAdj = siteTree.find(adjacent);
+            if (parentAdj != root) {
+                clusters -= 1; // two components become one
+                return siteTree.union(root, parentAdj); // the union ORs the flags of both components into the new root
+            }
         }
+        return root;
     }
 
     // is the site (row, col) open?
     public boolean isOpen(int row, int col) {
         checkException(row, col);
-        if ((siteState[(row - 1) * n + col] & OPEN) == OPEN)
+        if ((siteTree.flags((row - 1) * n + col) & OPEN) == OPEN)
             return true;
         return false;
     }
@@ -83,19 +135,82 @@ public class Percolation {
     // is the site (row, col) full?
     public boolean isFull(int row, int col) {
         checkException(row, col);
-        if (((siteState[(row - 1) * n + col] & OPEN) == OPEN) // if the current site is open
-                && (siteState[siteTree.find((row - 1) * n + col)] & OPEN_CONNECTED_TO_TOP)
+        if (((siteTree.flags((row - 1) * n + col) & OPEN) == OPEN) // if the current site is open
+                && (siteTree.flags(siteTree.find((row - 1) * n + col)) & OPEN_CONNECTED_TO_TOP)
                 // and its parent is connected to top
                 == OPEN_CONNECTED_TO_TOP)
             return true;
         return false;
     }
 
+    /* Writes the state of every site into state[site], for flat indices site = (row - 1) * n + (col - 1): BLOCKED,
+     * OPEN_SITE or FULL_SITE. This is one pass over the grid in row order without any bounds checks. Open sites next
+     * to each other in a row are in the same component, so the state is only resolved (by a find, and the flags of
+     * the root it lands on) for the first site of each run of open sites, and copied along the rest of the run */
+    public void snapshot(byte[] state) {
+        if (state == null || state.length < n * n)
+            throw new IllegalArgumentException(
+                    String.format("State array must hold at least %d sites", n * n));
+        for (int index = 1, nsq = n * n; index <= nsq; ) {
+            byte run = BLOCKED; // the state of the run of open sites the previous site belongs to
+            for (int end = index + n; index < end; index++) {
+                if ((siteTree.flags(index) & OPEN) != OPEN)
+                    run = BLOCKED;
+                else if (run == BLOCKED)
+                    run = isRootFull(index) ? FULL_SITE : OPEN_SITE;
+                state[index - 1] = run;
+            }
+        }
+    }
+
+    // sets the bits of the open and of the full sites (by flat index) in the given sets, and clears all others,
+    // resolving fullness once per run of open sites in a row, as snapshot(byte[]) does
+    public void snapshot(BitSet open, BitSet full) {
+        if (open == null || full == null)
+            throw new IllegalArgumentException("Null argument provided for the snapshot bit sets");
+        open.clear();
+        full.clear();
+        for (int index = 1, nsq = n * n; index <= nsq; ) {
+            byte run = BLOCKED;
+            for (int end = index + n; index < end; index++) {
+                if ((siteTree.flags(index) & OPEN) != OPEN) {
+                    run = BLOCKED;
+                    continue;
+                }
+                if (run == BLOCKED)
+                    run = isRootFull(index) ? FULL_SITE : OPEN_SITE;
+                open.set(index - 1);
+                if (run == FULL_SITE)
+                    full.set(index - 1);
+            }
+        }
+    }
+
+    // is the component of the open site at the given index of the union-find connected to the top?
+    private boolean isRootFull(int index) {
+        return (siteTree.flags(siteTree.find(index)) & CONNECTED_TO_TOP) == CONNECTED_TO_TOP;
+    }
+
     // returns the number of open sites
     public int numberOfOpenSites() {
         return numOpen;
     }
 
+    // returns the number of clusters (components of open sites)
+    public int numberOfClusters() {
+        return clusters;
+    }
+
+    // returns the number of sites in the largest cluster
+    public int largestClusterSize() {
+        return largestCluster;
+    }
+
+    // returns the number of open sites at the moment the system started to percolate, -1 if it does not percolate
+    public int openSitesAtPercolation() {
+        return openAtPercolation;
+    }
+
     // does the system percolate?
     public boolean percolates() {
         return percolates;
@@ -116,7 +231,7 @@ public class Percolation {
         if (n < 0 || n > 46340) {
             System.out
                     .println(String.format(
-                            "Provided number outside allowable bounds [0, sqrt(2^31)]: n = %d", n));
+                            "Provided number outside allowable bounds [0, sqrt(2^31)], use LargePercolation instead: n = %d", n));
             return;
         }
         if (repeats < 1 || repeats > 1000) {
@@ -128,12 +243,16 @@ public class Percolation {
         do {
             Percolation test = new Percolation(n);
             int nsq = n * n, i = 0;
+            // sites are opened in the order of a lazily built Fisher-Yates shuffle, so every attempt opens a new site
+            int[] order = new int[nsq];
+            for (int site = 0; site < nsq; site++)
+                order[site] = site;
             while (!(test.percolates() || test.numberOfOpenSites() == nsq || i > 2147483646)) {
-                test.open(1, 6);
-                test.isFull(1, 6);
-                System.out.println(test.isFull(1, 6));
-
-                test.open(StdRandom.uniform(1, n + 1), StdRandom.uniform(1, n + 1));
+                int swap = StdRandom.uniform(i, nsq);
+                int site = order[swap];
+                order[swap] = order[i];
+                order[i] = site;
+                test.open(site);
                 i++;
             }
             if (test.percolates())
@@ -143,12 +262,14 @@ public class Percolation {
             else System.out.println(String.format(
                     "%dx%d system does NOT percolate after %d opened sites, and after %d attempts at opening sites",
                     n, n, test.numberOfOpenSites(), i));
-            for (int j = 1; j <= n; j++) {
-                for (int k = 1; k <= n; k++) {
-                    if (test.isOpen(j, k))
-                        if (test.isFull(j, k))
-                            System.out.print('1');
-                        else System.out.print('.');
+            byte[] state = new byte[nsq];
+            test.snapshot(state);
+            for (int j = 0; j < n; j++) {
+                for (int k = 0; k < n; k++) {
+                    if (state[j * n + k] == FULL_SITE)
+                        System.out.print('1');
+                    else if (state[j * n + k] == OPEN_SITE)
+                        System.out.print('.');
                     else System.out.print(' ');
                 }
                 System.out.println();
@@ -1,80 +1,333 @@
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/* Monte Carlo estimate of the percolation threshold. The thresholds of the trials are never stored: they are folded
+ * into a RunningStats accumulator as they come in, so the memory used does not depend on the number of trials.
+ * Alongside the threshold, every trial also records the size of the largest cluster and the number of clusters at
+ * the moment the system percolates, which Percolation keeps track of as it goes */
 
 public class PercolationStats {
-    private double mean, stddev;
+    // below this many trials a fork-join task runs its range directly instead of splitting it further
+    private static final int TRIALS_PER_TASK = 4;
 
-    private final double[] means;
-    private final int t;
+    private final Samples samples;
 
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
-        if (n < 1 || trials < 1)
-            throw new IllegalArgumentException(
-                    "Invalid arguments provided, length of grid and number of trials must be positive integers");
-        means = new double[trials];
-        t = trials;
+        checkArguments(n, trials);
+        samples = new Samples();
+        int[] order = newOrder(n);
         int repeats = trials;
-        int nsq = n * n;
-        // Stopwatch timer = new Stopwatch();
         do {
-            Percolation test = new Percolation(n);
-            while (!test.percolates())
-                test.open(StdRandom.uniform(1, n + 1), StdRandom.uniform(1, n + 1));
+            samples.add(runTrial(n, order), (double) n * n);
             repeats -= 1;
-            means[repeats] = (double) test.numberOfOpenSites() / nsq;
         } while (repeats > 0);
+    }
+
+    // perform independent trials on an n-by-n grid, drawing every random choice from the given generator
+    public PercolationStats(int n, int trials, RandomGenerator random) {
+        checkArguments(n, trials);
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        samples = new Samples();
+        int[] order = newOrder(n);
+        for (int i = 0; i < trials; i++)
+            samples.add(runTrial(n, order, random), (double) n * n);
+    }
 
-        /* System.out.print(timer.elapsedTime());
-        System.out.println(String.format(
-                " seconds elapsed by running: %dx%d system simulated %d times",
-                n, n, t)); */
-        mean = StdStats.mean(means);
-        stddev = StdStats.stddev(means);
+    // perform independent trials on an n-by-n grid, spread across a fork-join pool with the given parallelism
+    public PercolationStats(int n, int trials, long seed, int parallelism) {
+        this(n, trials, new SplittableRandom(seed), newPool(parallelism), true);
+    }
+
+    // perform independent trials on an n-by-n grid, using the threads of the provided pool (which is left running)
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this(n, trials, new SplittableRandom(seed), pool, false);
+    }
+
+    // as above, splitting the streams of the trials off the given generator instead of a SplittableRandom
+    public PercolationStats(int n, int trials, SplittableGenerator random, ForkJoinPool pool) {
+        this(n, trials, random, pool, false);
+    }
+
+    /* Every trial gets its own random stream: a task splits its stream for the left half before forking, and a leaf
+     * splits one stream per trial in order. Which streams trial i sees only depends on the seed, not on the worker
+     * that runs it, and the partial accumulators are merged in the same tree shape every time, so a seed reproduces
+     * the same results on 1 or N cores.
+     *
+     * How the running time scales with the number of cores has not been measured: the only timings so far come from a
+     * single-core machine, where extra workers only add scheduling overhead (n = 256, 200 trials: 0.66 s with 1
+     * thread, 0.75 s with 2, 0.90 s with 4) */
+    private PercolationStats(int n, int trials, SplittableGenerator random, ForkJoinPool pool, boolean ownsPool) {
+        checkArguments(n, trials);
+        if (pool == null || random == null)
+            throw new IllegalArgumentException("Null argument provided for the fork-join pool or the random generator");
+        try {
+            samples = pool.invoke(new TrialTask(n, random, trials));
+        }
+        finally {
+            if (ownsPool)
+                pool.shutdown();
+        }
+    }
+
+    private PercolationStats(Samples samples) {
+        this.samples = samples;
+    }
+
+    /* Runs trials on an n-by-n grid until the half-width of the 95% confidence interval drops below the given
+     * tolerance. At least minTrials (and never fewer than 2) and at most maxTrials trials are run */
+    public static PercolationStats untilConverged(int n, double tolerance, int minTrials, int maxTrials) {
+        return converge(n, tolerance, minTrials, maxTrials, null);
+    }
+
+    // as above, drawing every random choice from the given generator instead of StdRandom
+    public static PercolationStats untilConverged(int n, double tolerance, int minTrials, int maxTrials,
+                                                  RandomGenerator random) {
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        return converge(n, tolerance, minTrials, maxTrials, random);
+    }
+
+    // the trial loop of both, using StdRandom if random is null
+    private static PercolationStats converge(int n, double tolerance, int minTrials, int maxTrials,
+                                             RandomGenerator random) {
+        checkArguments(n, maxTrials);
+        if (!(tolerance > 0) || minTrials > maxTrials)
+            throw new IllegalArgumentException(String.format(
+                    "Tolerance must be positive and minTrials <= maxTrials: tolerance = %f, minTrials = %d, maxTrials = %d",
+                    tolerance, minTrials, maxTrials));
+        Samples samples = new Samples();
+        RunningStats thresholds = samples.thresholds;
+        int least = Math.max(minTrials, 2);
+        int[] order = newOrder(n);
+        while (thresholds.count() < maxTrials
+                && (thresholds.count() < least || !(thresholds.halfWidth() < tolerance)))
+            samples.add(random == null ? runTrial(n, order) : runTrial(n, order, random), (double) n * n);
+        return new PercolationStats(samples);
+    }
+
+    /* Runs trials on an n-by-n grid with SweepPercolation, which only needs O(n) memory: every trial draws a seed,
+     * and the threshold of that configuration is found by bisection on the fill probability to within the given
+     * tolerance. The thresholds are fill probabilities rather than fractions of open sites, but they estimate the
+     * same percolation threshold. No cluster statistics are recorded in this mode */
+    public static PercolationStats bySweep(int n, int trials, long seed, double tolerance) {
+        checkArguments(n, trials);
+        SweepPercolation sweep = new SweepPercolation(n);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Samples samples = new Samples();
+        for (int i = 0; i < trials; i++)
+            samples.thresholds.add(sweep.threshold(seeds.nextLong(), tolerance));
+        return new PercolationStats(samples);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException(
+                    String.format("Parallelism must be a positive integer: parallelism = %d", parallelism));
+        return new ForkJoinPool(parallelism);
+    }
+
+    private static void checkArguments(int n, int trials) {
+        if (n < 1 || trials < 1)
+            throw new IllegalArgumentException(
+                    "Invalid arguments provided, length of grid and number of trials must be positive integers");
+    }
+
+    // buffer holding every flat site index of an n-by-n grid once, to be shuffled by the trials
+    private static int[] newOrder(int n) {
+        int[] order = new int[n * n];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        return order;
+    }
+
+    /* Runs a single trial using StdRandom, and returns the system as it is when it starts to percolate.
+     * Sites are opened in the order of a Fisher-Yates shuffle of order[] that is only carried out as far as the
+     * trial needs, so every step opens a new site instead of re-drawing ones that are already open. Any permutation
+     * is a valid starting point for the shuffle, so the buffer is reused between trials without being reset */
+    private static Percolation runTrial(int n, int[] order) {
+        Percolation test = new Percolation(n);
+        for (int i = 0; !test.percolates(); i++) {
+            int swap = StdRandom.uniform(i, order.length);
+            int site = order[swap];
+            order[swap] = order[i];
+            order[i] = site;
+            test.open(site);
+        }
+        return test;
+    }
+
+    // runs a single trial as above, drawing the shuffle from the given generator instead of StdRandom
+    private static Percolation runTrial(int n, int[] order, RandomGenerator random) {
+        Percolation test = new Percolation(n);
+        for (int i = 0; !test.percolates(); i++) {
+            int swap = random.nextInt(i, order.length);
+            int site = order[swap];
+            order[swap] = order[i];
+            order[i] = site;
+            test.open(site);
+        }
+        return test;
+    }
+
+    // accumulators for everything recorded per trial, merged as a whole by the fork-join tasks
+    private static class Samples {
+        private final RunningStats thresholds = new RunningStats(); // fraction of open sites
+        private final RunningStats largestClusters = new RunningStats(); // fraction of sites in the largest cluster
+        private final RunningStats clusterCounts = new RunningStats(); // number of clusters
+
+        private void add(Percolation test, double sites) {
+            thresholds.add(test.openSitesAtPercolation() / sites);
+            largestClusters.add(test.largestClusterSize() / sites);
+            clusterCounts.add(test.numberOfClusters());
+        }
+
+        private void merge(Samples other) {
+            thresholds.merge(other.thresholds);
+            largestClusters.merge(other.largestClusters);
+            clusterCounts.merge(other.clusterCounts);
+        }
+    }
+
+    // splits its trials in halves until they are few enough to run on the current worker, then merges the results
+    private static class TrialTask extends RecursiveTask<Samples> {
+        private static final long serialVersionUID = 1L;
+
+        private final int n, trials;
+        private final SplittableGenerator random;
+
+        private TrialTask(int n, SplittableGenerator random, int trials) {
+            this.n = n;
+            this.random = random;
+            this.trials = trials;
+        }
+
+        protected Samples compute() {
+            if (trials <= TRIALS_PER_TASK) {
+                Samples stats = new Samples();
+                int[] order = newOrder(n);
+                for (int i = 0; i < trials; i++)
+                    stats.add(runTrial(n, order, random.split()), (double) n * n);
+                return stats;
+            }
+            int half = trials / 2;
+            TrialTask left = new TrialTask(n, random.split(), half);
+            TrialTask right = new TrialTask(n, random, trials - half);
+            left.fork();
+            Samples stats = right.compute();
+            Samples leftStats = left.join();
+            leftStats.merge(stats);
+            return leftStats;
+        }
+    }
+
+    // number of trials that were run
+    public int trials() {
+        return (int) samples.thresholds.count();
     }
 
     // sample mean of percolation threshold
     public double mean() {
-        return mean;
+        return samples.thresholds.mean();
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
-        stddev = 0;
-        for (int i = 0; i < t; i++)
-            stddev += Math.pow(means[i] - mean, 2);
-        stddev = Math.sqrt(stddev / (t - 1));
-        return stddev;
+        return samples.thresholds.stddev();
     }
 
     // low endpoint of 95% confidence interval
     public double confidenceLo() {
-        return mean - ((1.96 * stddev) / Math.sqrt(t));
+        return samples.thresholds.confidenceLo();
     }
 
     // high endpoint of 95% confidence interval
     public double confidenceHi() {
-        return mean + ((1.96 * stddev) / Math.sqrt(t));
+        return samples.thresholds.confidenceHi();
+    }
+
+    // distribution of the fraction of sites in the largest cluster at percolation (a copy, empty in sweep mode)
+    public RunningStats largestClusterStats() {
+        return copyOf(samples.largestClusters);
+    }
+
+    // distribution of the number of clusters at percolation (a copy, empty in sweep mode)
+    public RunningStats clusterCountStats() {
+        return copyOf(samples.clusterCounts);
+    }
+
+    private static RunningStats copyOf(RunningStats stats) {
+        RunningStats copy = new RunningStats();
+        copy.merge(stats);
+        return copy;
     }
 
     // test client (see below)
+    // usage: n trials [parallelism [seed [generator]]], where giving a parallelism runs the trials on a fork-join pool,
+    //        and generator names a splittable java.util.random algorithm (SplittableRandom by default)
+    //    or: n converge tolerance maxTrials [seed], which runs trials until the confidence interval is narrow enough
     public static void main(String[] args) {
-        if (args.length != 2)
+        if (args.length < 2 || args.length > 5)
             throw new IllegalArgumentException(
-                    "Invalid number of arguments provided, please provide two integers for the n*n grid and number of repeats for the test");
+                    "Invalid number of arguments provided, please provide two integers for the n*n grid and number of repeats for the test, optionally followed by the number of threads and a seed");
         int n = Integer.parseInt(args[0]);
-        int t = Integer.parseInt(args[1]);
-        if (n <= 0 || t <= 0) {
-            throw new IllegalArgumentException(
-                    String.format("Grid side length n = %d or test repeats t = %d must be positive",
-                                  n, t));
+        Stopwatch timer = new Stopwatch();
+        PercolationStats stats;
+        if (args[1].equals("converge")) {
+            if (args.length < 4)
+                throw new IllegalArgumentException("Converge mode needs a tolerance and a maximum number of trials");
+            double tolerance = Double.parseDouble(args[2]);
+            int maxTrials = Integer.parseInt(args[3]);
+            stats = args.length == 5
+                    ? untilConverged(n, tolerance, 2, maxTrials, new SplittableRandom(Long.parseLong(args[4])))
+                    : untilConverged(n, tolerance, 2, maxTrials);
+        }
+        else {
+            int t = Integer.parseInt(args[1]);
+            if (n <= 0 || t <= 0) {
+                throw new IllegalArgumentException(
+                        String.format("Grid side length n = %d or test repeats t = %d must be positive",
+                                      n, t));
+            }
+            if (args.length == 2)
+                stats = new PercolationStats(n, t);
+            else {
+                int parallelism = Integer.parseInt(args[2]);
+                long seed = args.length >= 4 ? Long.parseLong(args[3]) : System.nanoTime();
+                if (args.length == 5) {
+                    RandomGeneratorFactory<SplittableGenerator> factory = RandomGeneratorFactory.of(args[4]);
+                    if (!factory.isSplittable())
+                        throw new IllegalArgumentException("Generator is not splittable: " + args[4]);
+                    ForkJoinPool pool = newPool(parallelism);
+                    try {
+                        stats = new PercolationStats(n, t, factory.create(seed), pool);
+                    }
+                    finally {
+                        pool.shutdown();
+                    }
+                }
+                else stats = new PercolationStats(n, t, seed, parallelism);
+            }
         }
-        PercolationStats stats = new PercolationStats(n, t);
+        System.out.println(String.format("trials                  = %d", stats.trials()));
         System.out.println(String.format("mean                    = %f", stats.mean()));
         System.out.println(String.format("stddev                  = %f", stats.stddev()));
         System.out.println(
                 String.format("95%% confidence interval = [%f, %f]", stats.confidenceLo(),
                               stats.confidenceHi()));
+        RunningStats largest = stats.largestClusterStats(), clusters = stats.clusterCountStats();
+        System.out.println(String.format("largest cluster         = %f +- %f of the sites", largest.mean(),
+                                         largest.stddev()));
+        System.out.println(String.format("clusters                = %f +- %f", clusters.mean(), clusters.stddev()));
+        System.out.println(String.format("elapsed time            = %f", timer.elapsedTime()));
     }
 
 }
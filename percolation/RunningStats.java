@@ -0,0 +1,77 @@
+/* Running mean and sample variance of a stream of values, kept with Welford's online update so that the memory used
+ * stays constant however many values are added. Two accumulators can be merged (Chan et al.), which lets every
+ * worker of a parallel run keep its own and combine them at the end */
+
+public class RunningStats {
+    private static final double CONFIDENCE_95 = 1.96; // z-value of the 95% confidence interval
+
+    private long count;
+    private double mean;
+    private double m2; // sum of squared distances from the current mean
+
+    // adds a value to the stream
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    // folds the values seen by another accumulator into this one
+    public void merge(RunningStats other) {
+        if (other == null)
+            throw new IllegalArgumentException("Null argument provided for merge");
+        if (other.count == 0)
+            return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+
+    // number of values added so far
+    public long count() {
+        return count;
+    }
+
+    // sample mean, NaN if no values were added
+    public double mean() {
+        if (count == 0)
+            return Double.NaN;
+        return mean;
+    }
+
+    // sample variance, NaN if fewer than 2 values were added
+    public double variance() {
+        if (count < 2)
+            return Double.NaN;
+        return m2 / (count - 1);
+    }
+
+    // sample standard deviation, NaN if fewer than 2 values were added
+    public double stddev() {
+        return Math.sqrt(variance());
+    }
+
+    // half the width of the 95% confidence interval of the mean
+    public double halfWidth() {
+        return CONFIDENCE_95 * stddev() / Math.sqrt(count);
+    }
+
+    // low endpoint of the 95% confidence interval of the mean
+    public double confidenceLo() {
+        return mean() - halfWidth();
+    }
+
+    // high endpoint of the 95% confidence interval of the mean
+    public double confidenceHi() {
+        return mean() + halfWidth();
+    }
+}
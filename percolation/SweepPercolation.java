@@ -0,0 +1,133 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/* Decides whether a random n-by-n configuration percolates by sweeping it one row at a time (Hoshen-Kopelman),
+ * instead of keeping a union-find over all n*n sites alive as Percolation does. Site (row, col) is open when the
+ * (row * n + col)-th double drawn from a SplittableRandom seeded with the given seed is below the fill probability p.
+ *
+ * Only two rows of labels are ever kept: slots [0, n) hold the row above, already relabeled so that every component
+ * is rooted at its leftmost site, and slots [n, 2n) the row being read. A component of the row above that no site of
+ * the new row joins can never reach the bottom, so it is dropped with the row. The working memory is O(n), and the
+ * sweep walks its small arrays in order, so it stays in cache.
+ *
+ * Because a seed fixes the whole configuration and a site that is open at p is open at every larger p, the
+ * threshold of a configuration can be found by bisection on p, re-drawing the same configuration for every probe */
+
+public class SweepPercolation {
+    private final int n;
+    private final int[] label;    // parent of every slot, -1 for a blocked site; a root is its own parent
+    private final boolean[] top;  // is the component connected to the top? (only kept up to date at roots)
+    private final int[] next;     // root of every site of the row being read, while it is relabeled
+    private final boolean[] nextTop;
+    private final int[] remap;    // new slot of every root while a row is relabeled, -1 otherwise
+
+    // creates the buffers needed to sweep n-by-n configurations
+    public SweepPercolation(int n) {
+        if (n < 1)
+            throw new IllegalArgumentException(
+                    "Invalid n argument provided, must be an integer > 0");
+        this.n = n;
+        label = new int[2 * n];
+        top = new boolean[2 * n];
+        next = new int[n];
+        nextTop = new boolean[n];
+        remap = new int[2 * n];
+        Arrays.fill(remap, -1);
+    }
+
+    // does the configuration drawn from the given seed, with every site open with probability p, percolate?
+    public boolean percolates(double p, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        // the row above the first one is a single open component connected to the top
+        Arrays.fill(label, 0, n, 0);
+        top[0] = true;
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                int slot = n + col;
+                if (random.nextDouble() < p) {
+                    label[slot] = slot;
+                    top[slot] = false;
+                    if (col > 0 && label[slot - 1] >= 0) // open neighbor to the left
+                        union(slot, slot - 1);
+                    if (label[col] >= 0) // open neighbor above
+                        union(slot, col);
+                }
+                else label[slot] = -1;
+            }
+            if (!relabel())
+                return false; // no open site of this row is connected to the top, so none below can be
+        }
+        return true;
+    }
+
+    /* Returns the threshold of the configuration drawn from the given seed: the fill probability at which it starts
+     * to percolate, found by bisection to within the given tolerance */
+    public double threshold(long seed, double tolerance) {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException(String.format("Tolerance must be positive: tolerance = %f", tolerance));
+        double lo = 0, hi = 1;
+        while (hi - lo > tolerance) {
+            double mid = (lo + hi) / 2;
+            if (percolates(mid, seed))
+                hi = mid;
+            else lo = mid;
+        }
+        return (lo + hi) / 2;
+    }
+
+    /* Moves the row that was just read into slots [0, n), with every component rooted at its leftmost site.
+     * Returns whether any of its sites is connected to the top */
+    private boolean relabel() {
+        boolean alive = false;
+        for (int col = 0; col < n; col++) {
+            if (label[n + col] < 0) {
+                next[col] = -1;
+                continue;
+            }
+            int root = find(n + col);
+            next[col] = root;
+            if (remap[root] < 0) { // the leftmost site of its component becomes the new root
+                remap[root] = col;
+                nextTop[col] = top[root];
+                alive |= top[root];
+            }
+        }
+        for (int col = 0; col < n; col++) {
+            if (next[col] < 0)
+                label[col] = -1;
+            else {
+                label[col] = remap[next[col]];
+                top[col] = nextTop[col];
+            }
+        }
+        for (int col = 0; col < n; col++)
+            if (next[col] >= 0)
+                remap[next[col]] = -1;
+        return alive;
+    }
+
+    // root of the slot's component, pointing every slot on the way up at its grandparent (path halving)
+    private int find(int slot) {
+        while (label[slot] != slot) {
+            label[slot] = label[label[slot]];
+            slot = label[slot];
+        }
+        return slot;
+    }
+
+    private void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ)
+            return;
+        // link under the smaller slot, so components tend to stay rooted in the row above and need few relinks
+        if (rootP < rootQ) {
+            label[rootQ] = rootP;
+            top[rootP] |= top[rootQ];
+        }
+        else {
+            label[rootP] = rootQ;
+            top[rootQ] |= top[rootP];
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/* Union-find over the sites of a percolation system that also keeps a few bits of state (the flags below) for every
+ * site, and for every component at its root. Percolation only talks to this interface, so the engine behind it can
+ * be swapped, e.g. to benchmark AlgsUnionFind (the algs4 WeightedQuickUnionUF) against CompactUnionFind */
+
+public interface UnionFind {
+    // we use bytes for these flags in order to manipulate them easily using bitwise OR operations
+    byte OPEN = 0b001, CONNECTED_TO_BOTTOM = 0b010, CONNECTED_TO_TOP = 0b100,
+            OPEN_CONNECTED_TO_TOP = 0b101,
+            CONNECTED_TO_BOTH = 0b111;
+
+    // returns the root of the component containing site p
+    int find(int p);
+
+    // merges the components containing sites p and q, ORs their flags together and returns the resulting root
+    int union(int p, int q);
+
+    // returns the flags of site p; the CONNECTED_TO_* flags are only kept up to date at the root of a component
+    byte flags(int p);
+
+    // ORs the given flags into site p, which must be the root of its component (as every site is before any union)
+    void addFlags(int p, byte flags);
+
+    // returns the number of sites in the component rooted at p, which must be a root
+    int size(int p);
+}
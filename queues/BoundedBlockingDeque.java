@@ -0,0 +1,401 @@
+/* A double-ended queue with a fixed capacity, for handing items from producer threads to consumer threads. Next to
+ * the Deque operations (addFirst/addLast, which fail when the deque is full, and removeFirst/removeLast, which fail
+ * when it is empty), every end has
+ *
+ * - putFirst/putLast and takeFirst/takeLast, which wait as long as it takes for room or for an item;
+ * - offerFirst/offerLast and pollFirst/pollLast, which give up at once, or after a timeout, and report it;
+ * - drainTo(collection, max), which moves up to max items from the front in one go, under one lock acquisition.
+ *
+ * The items live in a circular array of exactly the capacity, guarded by a single ReentrantLock with one condition
+ * for "not empty" and one for "not full". Waiting on those conditions parks the thread instead of holding a monitor,
+ * so a virtual thread waiting here unmounts from its carrier (a synchronized block would pin it) */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BoundedBlockingDeque<Item> implements Iterable<Item> {
+    private final Item[] s;
+    private int head = 0; // index of the first item
+    private int n = 0;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // construct an empty deque that holds at most capacity items
+    public BoundedBlockingDeque(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be a positive integer: capacity = " + capacity);
+        s = (Item[]) new Object[capacity];
+    }
+
+    // the index wrapped back into the array, for an index at most one capacity past its end
+    private int wrap(int index) {
+        return index >= s.length ? index - s.length : index;
+    }
+
+    /* The operations below all assume the caller holds the lock, and the deque is not full (for the links) or not
+     * empty (for the unlinks) */
+
+    private void linkFirst(Item item) {
+        head = head == 0 ? s.length - 1 : head - 1;
+        s[head] = item;
+        n++;
+        notEmpty.signal();
+    }
+
+    private void linkLast(Item item) {
+        s[wrap(head + n)] = item;
+        n++;
+        notEmpty.signal();
+    }
+
+    private Item unlinkFirst() {
+        Item item = s[head];
+        s[head] = null; // remove the reference to prevent loitering
+        head = wrap(head + 1);
+        n--;
+        notFull.signal();
+        return item;
+    }
+
+    private Item unlinkLast() {
+        int index = wrap(head + n - 1);
+        Item item = s[index];
+        s[index] = null; // remove the reference to prevent loitering
+        n--;
+        notFull.signal();
+        return item;
+    }
+
+    private static void checkItem(Object item) {
+        if (item == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        lock.lock();
+        try {
+            return n;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // return the most items the deque can hold
+    public int capacity() {
+        return s.length;
+    }
+
+    // return how many more items the deque can take without waiting
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return s.length - n;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front if there is room, returning whether it was added
+    public boolean offerFirst(Item item) {
+        checkItem(item);
+        lock.lock();
+        try {
+            if (n == s.length)
+                return false;
+            linkFirst(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back if there is room, returning whether it was added
+    public boolean offerLast(Item item) {
+        checkItem(item);
+        lock.lock();
+        try {
+            if (n == s.length)
+                return false;
+            linkLast(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front, throwing an IllegalStateException if the deque is full
+    public void addFirst(Item item) {
+        if (!offerFirst(item))
+            throw new IllegalStateException("Deque full, capacity = " + s.length);
+    }
+
+    // add the item to the back, throwing an IllegalStateException if the deque is full
+    public void addLast(Item item) {
+        if (!offerLast(item))
+            throw new IllegalStateException("Deque full, capacity = " + s.length);
+    }
+
+    // add the item to the front, waiting for room if necessary
+    public void putFirst(Item item) throws InterruptedException {
+        checkItem(item);
+        lock.lockInterruptibly();
+        try {
+            while (n == s.length)
+                notFull.await();
+            linkFirst(item);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back, waiting for room if necessary
+    public void putLast(Item item) throws InterruptedException {
+        checkItem(item);
+        lock.lockInterruptibly();
+        try {
+            while (n == s.length)
+                notFull.await();
+            linkLast(item);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front, waiting up to the timeout for room; returns whether it was added
+    public boolean offerFirst(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkItem(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (n == s.length) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            linkFirst(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back, waiting up to the timeout for room; returns whether it was added
+    public boolean offerLast(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkItem(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (n == s.length) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            linkLast(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the front, or null if the deque is empty
+    public Item pollFirst() {
+        lock.lock();
+        try {
+            return n == 0 ? null : unlinkFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, or null if the deque is empty
+    public Item pollLast() {
+        lock.lock();
+        try {
+            return n == 0 ? null : unlinkLast();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the front, throwing a NoSuchElementException if the deque is empty
+    public Item removeFirst() {
+        Item item = pollFirst();
+        if (item == null)
+            throw new NoSuchElementException(
+                    "Attempted to call removeFirst while Deque is empty, size must be > 0");
+        return item;
+    }
+
+    // remove and return the item from the back, throwing a NoSuchElementException if the deque is empty
+    public Item removeLast() {
+        Item item = pollLast();
+        if (item == null)
+            throw new NoSuchElementException(
+                    "Attempted to call removeLast while Deque is empty, size must be > 0");
+        return item;
+    }
+
+    // remove and return the item from the front, waiting for one if necessary
+    public Item takeFirst() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (n == 0)
+                notEmpty.await();
+            return unlinkFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, waiting for one if necessary
+    public Item takeLast() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (n == 0)
+                notEmpty.await();
+            return unlinkLast();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the front, waiting up to the timeout for one; null if none came
+    public Item pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (n == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return unlinkFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, waiting up to the timeout for one; null if none came
+    public Item pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (n == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return unlinkLast();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /* remove up to max items from the front, adding them to the collection in order, and return how many were moved.
+     * It does not wait: it takes whatever is there, under a single acquisition of the lock, and wakes every producer
+     * that may now have room */
+    public int drainTo(Collection<? super Item> collection, int max) {
+        if (collection == null)
+            throw new IllegalArgumentException("Null argument provided for the collection");
+        if (max < 0)
+            throw new IllegalArgumentException("Number of items must not be negative: max = " + max);
+        lock.lock();
+        try {
+            int count = Math.min(max, n), moved = 0;
+            try {
+                // an item only leaves the deque once the collection took it, so if add() throws, the deque still
+                // holds exactly the items that were not handed over
+                while (moved < count) {
+                    collection.add(s[head]);
+                    s[head] = null;
+                    head = wrap(head + 1);
+                    n--;
+                    moved++;
+                }
+                return moved;
+            }
+            finally {
+                if (moved > 0)
+                    notFull.signalAll();
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // return an iterator over a snapshot of the items in order from front to back, taken under the lock
+    public Iterator<Item> iterator() {
+        RingDeque<Item> snapshot = new RingDeque<Item>();
+        lock.lock();
+        try {
+            for (int i = 0; i < n; i++)
+                snapshot.addLast(s[wrap(head + i)]);
+        }
+        finally {
+            lock.unlock();
+        }
+        return snapshot.iterator();
+    }
+
+    // unit testing: a producer puts 1 000 000 numbers through a deque of capacity 64 to a consumer draining batches
+    public static void main(String[] args) throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<Integer>(64);
+        int count = 1_000_000;
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++)
+                    deque.putLast(i);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        ArrayList<Integer> batch = new ArrayList<Integer>();
+        long sum = 0;
+        int received = 0, batches = 0;
+        while (received < count) {
+            Integer first = deque.takeFirst(); // wait for at least one item, then take whatever else is there
+            batch.add(first);
+            deque.drainTo(batch, 63);
+            for (int item : batch) {
+                if (item != received++)
+                    throw new IllegalStateException("Items out of order");
+                sum += item;
+            }
+            batch.clear();
+            batches++;
+        }
+        producer.join();
+        StdOut.println("received " + received + " items in " + batches + " batches, sum " + sum);
+    }
+}
@@ -0,0 +1,231 @@
+/* A randomized queue that any number of threads can share. Instead of one lock around one array, the items are
+ * striped over a power-of-two number of shards (by default, twice the number of cores), each a RandomizedQueue with
+ * its own lock and its own generator:
+ *
+ * - enqueue adds to a random shard, or, if another thread holds that shard, to the next one it can lock without
+ *   waiting;
+ * - dequeue picks a random shard and removes a random item from it; when that shard is busy or empty it moves on to
+ *   the next ones (stealing from them), and only if none could be locked without waiting does it wait for each in turn.
+ *
+ * Threads mostly touch different shards, so they rarely wait for each other. The price is that a dequeue is uniform
+ * within a shard rather than across the whole queue: an item of a small shard is more likely to come out than one of
+ * a large shard. Since every item goes to a random shard, however many of them each thread adds, the shards stay
+ * about the same size and the choice stays close to uniform. (A shard per thread would keep a producer's items
+ * together, and a few items of a quiet producer would then come out as often as all those of a busy one.)
+ *
+ * size() is kept in a LongAdder, so counting does not become a point of contention either; like isEmpty(), it is
+ * only a snapshot while other threads are using the queue. poll() returns null (and dequeue() throws) only if the
+ * queue was empty at one moment: before giving up, it holds every shard's lock at once for a final look */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+    private final RandomizedQueue<Item>[] shards;
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final LongAdder size = new LongAdder();
+
+    // construct an empty queue with twice as many shards as there are cores, rounded up to a power of two
+    public ConcurrentRandomizedQueue() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    // construct an empty queue with at least the given number of shards, rounded up to a power of two
+    public ConcurrentRandomizedQueue(int shardCount) {
+        if (shardCount < 1 || shardCount > 1 << 16)
+            throw new IllegalArgumentException(
+                    String.format("Number of shards must be in [1, 65536]: shards = %d", shardCount));
+        int count = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        shards = (RandomizedQueue<Item>[]) new RandomizedQueue[count];
+        locks = new ReentrantLock[count];
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < count; i++) {
+            shards[i] = new RandomizedQueue<Item>(seeds.split());
+            locks[i] = new ReentrantLock();
+        }
+        mask = count - 1;
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    // number of shards the items are spread over
+    public int shards() {
+        return shards.length;
+    }
+
+    // add the item
+    public void enqueue(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        int start = ThreadLocalRandom.current().nextInt() & mask;
+        for (int i = 0; i <= mask; i++) {
+            int shard = (start + i) & mask;
+            if (locks[shard].tryLock()) {
+                enqueueLocked(shard, item);
+                return;
+            }
+        }
+        locks[start].lock();
+        enqueueLocked(start, item);
+    }
+
+    // adds the item to a shard whose lock the caller holds, and releases the lock
+    private void enqueueLocked(int shard, Item item) {
+        try {
+            shards[shard].enqueue(item);
+        }
+        finally {
+            locks[shard].unlock();
+        }
+        size.increment();
+    }
+
+    // remove and return a random item, or return null if the queue is empty
+    public Item poll() {
+        int start = ThreadLocalRandom.current().nextInt() & mask;
+        for (int i = 0; i <= mask; i++) { // first pass: only shards nobody else holds
+            int shard = (start + i) & mask;
+            ReentrantLock lock = locks[shard];
+            if (lock.tryLock()) {
+                Item item = dequeueLocked(shard);
+                if (item != null)
+                    return item;
+            }
+        }
+        for (int i = 0; i <= mask; i++) { // second pass: wait for the busy ones as well
+            int shard = (start + i) & mask;
+            locks[shard].lock();
+            Item item = dequeueLocked(shard);
+            if (item != null)
+                return item;
+        }
+        return findAllLocked(start, true);
+    }
+
+    /* last resort, when both passes found nothing: an item may have been enqueued into a shard after a pass had gone
+     * by it, so lock every shard at once (in index order, the only place that holds more than one) and look again.
+     * Nothing can come or go meanwhile, so null means the queue really was empty at that moment. The item is removed
+     * if remove is set, and only sampled otherwise */
+    private Item findAllLocked(int start, boolean remove) {
+        for (ReentrantLock lock : locks)
+            lock.lock();
+        Item item = null;
+        try {
+            for (int i = 0; i <= mask && item == null; i++) {
+                RandomizedQueue<Item> queue = shards[(start + i) & mask];
+                if (!queue.isEmpty())
+                    item = remove ? queue.dequeue() : queue.sample();
+            }
+        }
+        finally {
+            for (ReentrantLock lock : locks)
+                lock.unlock();
+        }
+        if (item != null && remove)
+            size.decrement();
+        return item;
+    }
+
+    // removes a random item from a shard whose lock the caller holds, or null if it is empty, and releases the lock
+    private Item dequeueLocked(int shard) {
+        Item item;
+        try {
+            RandomizedQueue<Item> queue = shards[shard];
+            if (queue.isEmpty())
+                return null;
+            item = queue.dequeue();
+        }
+        finally {
+            locks[shard].unlock();
+        }
+        size.decrement();
+        return item;
+    }
+
+    // remove and return a random item
+    public Item dequeue() {
+        Item item = poll();
+        if (item == null)
+            throw new NoSuchElementException("List is empty, no items to return");
+        return item;
+    }
+
+    // return a random item (but do not remove it): a random item of a random non-empty shard
+    public Item sample() {
+        int start = ThreadLocalRandom.current().nextInt() & mask;
+        for (int i = 0; i <= mask; i++) {
+            int shard = (start + i) & mask;
+            locks[shard].lock();
+            try {
+                if (!shards[shard].isEmpty())
+                    return shards[shard].sample();
+            }
+            finally {
+                locks[shard].unlock();
+            }
+        }
+        Item item = findAllLocked(start, false);
+        if (item == null)
+            throw new NoSuchElementException("List is empty, no items to return");
+        return item;
+    }
+
+    /* return an iterator over the items in random order. It is weakly consistent: each shard is copied under its
+     * lock in turn, so the iterator reflects every shard at some moment during the call, but not necessarily all
+     * of them at the same moment, and it is unaffected by anything that happens later */
+    public Iterator<Item> iterator() {
+        RandomizedQueue<Item> snapshot = new RandomizedQueue<Item>();
+        for (int shard = 0; shard <= mask; shard++) {
+            locks[shard].lock();
+            try {
+                for (Item item : shards[shard])
+                    snapshot.enqueue(item);
+            }
+            finally {
+                locks[shard].unlock();
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    // unit testing: four threads each enqueue and dequeue their share of 1 000 000 numbers
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>();
+        int threads = 4, perThread = 250_000;
+        LongAdder sum = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.enqueue(offset + i);
+                    if (i % 2 == 1)
+                        sum.add(queue.dequeue());
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        while (!queue.isEmpty())
+            sum.add(queue.dequeue());
+        long n = (long) threads * perThread;
+        StdOut.println("shards: " + queue.shards());
+        StdOut.println("sum of dequeued items: " + sum.sum() + " (expected " + n * (n - 1) / 2 + ")");
+    }
+}
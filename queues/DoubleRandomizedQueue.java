@@ -0,0 +1,127 @@
+/* A randomized queue of double values: the same swap-with-last array as RandomizedQueue, but with the values stored
+ * directly in a double[], so there is no Double box per value (8 bytes per value instead of about 28).
+ * As in RandomizedQueue, the random choices come from the queue's own RandomGenerator. The iterator is a
+ * PrimitiveIterator.OfDouble, whose nextDouble() returns the value without boxing it
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class DoubleRandomizedQueue implements Iterable<Double> {
+    private double[] s = new double[1];
+    private int n = 0;
+    private final RandomGenerator random;
+
+    // construct an empty randomized queue
+    public DoubleRandomizedQueue() {
+        this(new SplittableRandom());
+    }
+
+    // construct an empty randomized queue drawing its random choices from the given generator
+    public DoubleRandomizedQueue(RandomGenerator random) {
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        this.random = random;
+    }
+
+    // resize the array if need be
+    private void resize(int capacity) {
+        s = Arrays.copyOf(s, capacity);
+    }
+
+    // is the randomized queue empty?
+    public boolean isEmpty() {
+        return (n == 0);
+    }
+
+    // return the number of items on the randomized queue
+    public int size() {
+        return n;
+    }
+
+    // add the item
+    public void enqueue(double item) {
+        if (n == s.length)
+            resize(2 * n);
+        s[n++] = item;
+    }
+
+    // remove and return a random item
+    /* We return a random element from the array, after which we replace it with the array's last item*/
+    public double dequeue() {
+        if (n == 0)
+            throw new NoSuchElementException("List is empty, no items to return");
+
+        int randomIndex = random.nextInt(n);
+        double item = s[randomIndex];
+        s[randomIndex] = s[--n];
+
+        if (n > 0 && n == s.length / 4)
+            resize(s.length / 2);
+
+        return item;
+    }
+
+    // return a random item (but do not remove it)
+    public double sample() {
+        if (n == 0)
+            throw new NoSuchElementException("List is empty, no items to return");
+
+        return s[random.nextInt(n)];
+    }
+
+    // return an independent iterator over items in random order
+    public PrimitiveIterator.OfDouble iterator() {
+        return new DoubleRandomizedQueueIterator();
+    }
+
+    private class DoubleRandomizedQueueIterator implements PrimitiveIterator.OfDouble {
+        private final double[] items = Arrays.copyOf(s, n);
+        private int itemsLeft = n;
+
+        public boolean hasNext() {
+            return (itemsLeft > 0);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        public double nextDouble() {
+            if (hasNext()) {
+                int randomIndex = random.nextInt(itemsLeft);
+                double item = items[randomIndex];
+                items[randomIndex] = items[--itemsLeft];
+                return item;
+            }
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    // unit testing: reads double values from standard input
+    public static void main(String[] args) {
+        DoubleRandomizedQueue myList = new DoubleRandomizedQueue();
+        while (!StdIn.isEmpty()) {
+            myList.enqueue(StdIn.readDouble());
+        }
+        StdOut.print("First dequeue: ");
+        StdOut.println(myList.dequeue());
+        StdOut.print("Second dequeue: ");
+        StdOut.println(myList.dequeue());
+
+        StdOut.print("First sample: ");
+        StdOut.println(myList.sample());
+
+        PrimitiveIterator.OfDouble myIterator = myList.iterator();
+        while (myIterator.hasNext()) {
+            StdOut.println(myIterator.nextDouble());
+        }
+    }
+
+}
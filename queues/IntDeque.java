@@ -0,0 +1,132 @@
+/* A double-ended queue of int values, laid out like RingDeque (a circular array with a power-of-two capacity) but
+ * with the values stored directly in an int[]: no Integer box and no Node per value, so a value costs 4 bytes.
+ * The iterator is a PrimitiveIterator.OfInt, whose nextInt() returns the value without boxing it
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class IntDeque implements Iterable<Integer> {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] s = new int[MIN_CAPACITY];
+    private int head = 0; // index of the first item
+    private int n = 0;
+
+    // construct an empty deque
+    public IntDeque() {
+        // no code, use the default no-argument constructor here
+    }
+
+    // resize the array to the given power of two, moving the first item to index 0
+    private void resize(int capacity) {
+        int[] copy = new int[capacity];
+        int firstRun = Math.min(n, s.length - head); // items up to the end of the array, then the ones wrapped around
+        System.arraycopy(s, head, copy, 0, firstRun);
+        System.arraycopy(s, 0, copy, firstRun, n - firstRun);
+        s = copy;
+        head = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return n;
+    }
+
+    // add the item to the front
+    public void addFirst(int item) {
+        if (n == s.length)
+            resize(2 * n);
+        head = (head - 1) & (s.length - 1);
+        s[head] = item;
+        n++;
+    }
+
+    // add the item to the back
+    public void addLast(int item) {
+        if (n == s.length)
+            resize(2 * n);
+        s[(head + n) & (s.length - 1)] = item;
+        n++;
+    }
+
+    // remove and return the item from the front
+    public int removeFirst() {
+        if (n == 0) {
+            throw new NoSuchElementException(
+                    "Attempted to call removeFirst while Deque is empty, size must be > 0");
+        }
+        int item = s[head];
+        head = (head + 1) & (s.length - 1);
+        n--;
+        shrink();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public int removeLast() {
+        if (n == 0) {
+            throw new NoSuchElementException(
+                    "Attempted to call removeLast while Deque is empty, size must be > 0");
+        }
+        int index = (head + n - 1) & (s.length - 1);
+        int item = s[index];
+        n--;
+        shrink();
+        return item;
+    }
+
+    // halve the array once it is a quarter full, but never below MIN_CAPACITY
+    private void shrink() {
+        if (n == s.length / 4 && s.length > MIN_CAPACITY)
+            resize(s.length / 2);
+    }
+
+    // return an iterator over items in order from front to back
+    public PrimitiveIterator.OfInt iterator() {
+        return new IntDequeIterator();
+    }
+
+    private class IntDequeIterator implements PrimitiveIterator.OfInt {
+        private int i = 0; // number of items returned so far
+
+        public boolean hasNext() {
+            return i < n;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        public int nextInt() {
+            if (hasNext())
+                return s[(head + i++) & (s.length - 1)];
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    // unit testing: reads int values from standard input
+    public static void main(String[] args) {
+        IntDeque myList = new IntDeque();
+        while (!StdIn.isEmpty()) {
+            myList.addFirst(StdIn.readInt());
+        }
+        myList.removeFirst();
+        myList.removeLast();
+        myList.addFirst(-1);
+        myList.addLast(-2);
+        PrimitiveIterator.OfInt myIterator = myList.iterator();
+        while (myIterator.hasNext()) {
+            StdOut.println(myIterator.nextInt());
+        }
+    }
+
+}
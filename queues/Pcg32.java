@@ -0,0 +1,44 @@
+/* PCG32 (O'Neill, 2014), the PCG-XSH-RR variant: a 64-bit linear congruential generator whose state is scrambled into
+ * 32 bits of output by a xorshift and a random rotation. One multiply-add per int, with no synchronization, so one
+ * generator must not be shared between threads. Different stream selectors give independent sequences from the same
+ * seed. RandomGenerator builds nextInt(bound) on top of nextInt(), so bounded ints cost a single step */
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public class Pcg32 implements RandomGenerator {
+    private static final long MULTIPLIER = 6364136223846793005L;
+
+    private long state;
+    private final long increment; // always odd
+
+    // a generator seeded from ThreadLocalRandom
+    public Pcg32() {
+        this(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+    }
+
+    // a generator whose whole stream is determined by the seed
+    public Pcg32(long seed) {
+        this(seed, 0xDA3E39CB94B95BDBL);
+    }
+
+    // a generator for the given seed on one of 2^63 streams
+    public Pcg32(long seed, long stream) {
+        increment = (stream << 1) | 1;
+        state = 0;
+        nextInt();
+        state += seed;
+        nextInt();
+    }
+
+    public int nextInt() {
+        long old = state;
+        state = old * MULTIPLIER + increment;
+        int xorShifted = (int) (((old >>> 18) ^ old) >>> 27);
+        return Integer.rotateRight(xorShifted, (int) (old >>> 59));
+    }
+
+    public long nextLong() {
+        return ((long) nextInt() << 32) | (nextInt() & 0xFFFFFFFFL);
+    }
+}
@@ -1,24 +1,49 @@
 import edu.princeton.cs.algs4.StdIn;
 
 import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/* Prints k of the strings on standard input, chosen uniformly at random. Given "stream" as a further argument, it
+ * keeps only a reservoir of k strings instead of all of them, so the input can be far larger than the heap. Given a
+ * seed (a number) as a further argument, the choice is drawn from a Xoshiro256StarStar generator seeded with it, so
+ * the same input always gives the same output */
 
 public class Permutation {
     public static void main(String[] args) {
-        RandomizedQueue<String> myList = new RandomizedQueue<String>();
-        if (args.length != 1) {
+        if (args.length < 1 || args.length > 3) {
             throw new IllegalArgumentException(
                     "Please provide a numeric argument > 0 at the command line");
         }
+        boolean stream = false;
+        RandomGenerator random = new SplittableRandom();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("stream"))
+                stream = true;
+            else random = new Xoshiro256StarStar(Long.parseLong(args[i]));
+        }
+        RandomizedQueue<String> myList = new RandomizedQueue<String>(random);
         int k = Integer.parseInt(args[0]);
         if (k < 0)
             throw new IllegalArgumentException(
                     "Please provide a numeric argument > 0 at the command line");
 
+        if (stream) { // Uses a reservoir of k elements:
+            ReservoirSampler<String> sampler = new ReservoirSampler<String>(k, random);
+            while (!StdIn.isEmpty()) {
+                sampler.add(StdIn.readString());
+            }
+            for (String s : sampler)
+                System.out.println(s);
+            return;
+        }
+
         // Uses a RandomizedQueue of n elements:
         while (!StdIn.isEmpty()) {
             myList.enqueue(StdIn.readString());
         }
-        Iterator<String> iter = myList.iterator();
+        // the lazy iterator only shuffles as far as the k items it is asked for
+        Iterator<String> iter = myList.lazyIterator();
         while (iter.hasNext() && k > 0) {
             String s = iter.next();
             k--;
@@ -0,0 +1,61 @@
+/* The random number generators the queues can be given, by name. Every one of them is a
+ * java.util.random.RandomGenerator, the interface RandomizedQueue, its iterators and ReservoirSampler draw from:
+ *
+ * - "StdRandom": the course's StdRandom, one java.util.Random shared (and synchronized on) by the whole program;
+ * - "SplittableRandom": java.util.SplittableRandom, the default of the queues;
+ * - "Xoshiro256StarStar" and "Pcg32": the small generators in this folder;
+ * - any other algorithm name known to java.util.random.RandomGeneratorFactory, e.g. "L64X128MixRandom" */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+public class RandomGenerators {
+    // StdRandom behind the RandomGenerator interface, so that StdRandom.setSeed still makes a run reproducible
+    private static final RandomGenerator STD_RANDOM = new RandomGenerator() {
+        public long nextLong() {
+            return StdRandom.uniform(Long.MAX_VALUE) << 1 | StdRandom.uniform(2);
+        }
+
+        public int nextInt(int bound) {
+            return StdRandom.uniform(bound);
+        }
+
+        public int nextInt(int origin, int bound) {
+            return StdRandom.uniform(origin, bound);
+        }
+
+        public double nextDouble() {
+            return StdRandom.uniform();
+        }
+    };
+
+    private RandomGenerators() {
+    }
+
+    // the shared StdRandom generator
+    public static RandomGenerator stdRandom() {
+        return STD_RANDOM;
+    }
+
+    // a new generator of the named algorithm, seeded with the given seed (for StdRandom, its global seed is set)
+    public static RandomGenerator of(String name, long seed) {
+        if (name == null)
+            throw new IllegalArgumentException("Null argument provided for the generator name");
+        switch (name) {
+            case "StdRandom":
+                StdRandom.setSeed(seed);
+                return STD_RANDOM;
+            case "SplittableRandom":
+                return new SplittableRandom(seed);
+            case "Xoshiro256StarStar":
+                return new Xoshiro256StarStar(seed);
+            case "Pcg32":
+                return new Pcg32(seed);
+            default:
+                return RandomGeneratorFactory.of(name).create(seed);
+        }
+    }
+}
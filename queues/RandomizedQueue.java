@@ -1,27 +1,44 @@
 /* A randomized queue,  similar to a stack or queue, except that the item removed is chosen uniformly at random among items in the data structure.
+ * Every random choice, including those of the iterators, is drawn from the queue's own RandomGenerator: a new
+ * SplittableRandom by default, or one passed in, e.g. seeded for a reproducible run (see RandomGenerators)
 */
 
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8; // the largest array most JVMs will allocate
+
     private Item[] s = (Item[]) new Object[1];
     private int n = 0;
+    private int modifications = 0; // number of enqueues and dequeues so far, checked by the lazy iterator
+    private final RandomGenerator random;
 
     // construct an empty randomized queue
     public RandomizedQueue() {
-        // no code, use the default no-argument constructor here
+        this(new SplittableRandom());
+    }
+
+    // construct an empty randomized queue drawing its random choices from the given generator
+    public RandomizedQueue(RandomGenerator random) {
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        this.random = random;
     }
 
     // resize the array if need be
     private void resize(int capacity) {
         Item[] copy = (Item[]) new Object[capacity];
-        for (int i = 0; i < n; i++)
-            copy[i] = s[i];
+        System.arraycopy(s, 0, copy, 0, n);
         s = copy;
     }
 
@@ -42,6 +59,37 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (n == s.length)
             resize(2 * n);
         s[n++] = item;
+        modifications++;
+    }
+
+    // add all the items of the array, resizing at most once
+    public void enqueueAll(Item[] items) {
+        if (items == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        for (Item item : items) // check the whole batch before adding any of it
+            if (item == null)
+                throw new IllegalArgumentException("No null inputs accepted");
+        if (items.length == 0)
+            return;
+        long needed = (long) n + items.length; // as a long, since the sum can overflow an int
+        if (needed > MAX_CAPACITY)
+            throw new IllegalArgumentException(String.format(
+                    "Too many items: %d on the queue and %d to add, at most %d fit", n, items.length, MAX_CAPACITY));
+        int capacity = s.length;
+        while (capacity < needed) // ends, because capacity reaches MAX_CAPACITY >= needed at the latest
+            capacity = (int) Math.min(2L * capacity, MAX_CAPACITY);
+        if (capacity != s.length)
+            resize(capacity);
+        System.arraycopy(items, 0, s, n, items.length);
+        n += items.length;
+        modifications++;
+    }
+
+    // add all the items of the collection, resizing at most once
+    public void enqueueAll(Collection<? extends Item> items) {
+        if (items == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        enqueueAll((Item[]) items.toArray());
     }
 
     // remove and return a random item
@@ -50,10 +98,11 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (n == 0)
             throw new NoSuchElementException("List is empty, no items to return");
 
-        int randomIndex = StdRandom.uniform(0, n); // temporarily save a random index
+        int randomIndex = random.nextInt(n); // temporarily save a random index
         Item item = s[randomIndex]; // temporarily save the item from that random index
         s[randomIndex] = s[--n]; // replace item from randomIndex with last item, then decrement n
         s[n] = null; // remove the last reference to prevent loitering
+        modifications++;
 
         if (n > 0 && n == s.length / 4)
             resize(s.length / 2);
@@ -61,12 +110,66 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return item; // return the saved random item
     }
 
+    /* remove and return k distinct random items, in random order. The last k steps of a Fisher-Yates shuffle move
+     * them to the end of the array, where they are copied out in one go; the array shrinks at most once */
+    public List<Item> dequeue(int k) {
+        checkBatch(k);
+        for (int i = n - 1; i >= n - k; i--) {
+            int randomIndex = random.nextInt(i + 1);
+            Item item = s[randomIndex];
+            s[randomIndex] = s[i];
+            s[i] = item;
+        }
+        Item[] items = (Item[]) new Object[k];
+        System.arraycopy(s, n - k, items, 0, k);
+        Arrays.fill(s, n - k, n, null); // remove the references to prevent loitering
+        n -= k;
+        modifications++;
+
+        int capacity = s.length;
+        while (n > 0 && n <= capacity / 4)
+            capacity /= 2;
+        if (capacity != s.length)
+            resize(capacity);
+        return Arrays.asList(items);
+    }
+
+    private void checkBatch(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("Number of items must not be negative: k = " + k);
+        if (k > n)
+            throw new NoSuchElementException(String.format("Only %d items to return, %d requested", n, k));
+    }
+
     // return a random item (but do not remove it)
     public Item sample() {
         if (n == 0)
             throw new NoSuchElementException("List is empty, no items to return");
 
-        return s[StdRandom.uniform(0, n)];
+        return s[random.nextInt(n)];
+    }
+
+    /* return k distinct random items (but do not remove them), in random order. The same partial Fisher-Yates shuffle
+     * as dequeue(k), after which the swaps are undone in reverse order, so the array is left as it was */
+    public List<Item> sample(int k) {
+        checkBatch(k);
+        int[] swaps = new int[k];
+        Item[] items = (Item[]) new Object[k];
+        for (int i = 0; i < k; i++) {
+            int last = n - 1 - i;
+            int randomIndex = random.nextInt(last + 1);
+            swaps[i] = randomIndex;
+            items[i] = s[randomIndex];
+            s[randomIndex] = s[last];
+            s[last] = items[i];
+        }
+        for (int i = k - 1; i >= 0; i--) {
+            int last = n - 1 - i;
+            Item item = s[last];
+            s[last] = s[swaps[i]];
+            s[swaps[i]] = item;
+        }
+        return Arrays.asList(items);
     }
 
     // return an independent iterator over items in random order
@@ -93,7 +196,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
         public Item next() {
             if (hasNext()) {
-                int randomIndex = StdRandom.uniform(0, itemsLeft);
+                int randomIndex = random.nextInt(itemsLeft);
                 Item item = items[randomIndex];
                 items[randomIndex] = items[--itemsLeft];
                 items[itemsLeft] = null;
@@ -103,6 +206,93 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
     }
 
+    /* return an iterator over items in random order that shuffles lazily instead of copying the items up front:
+     * a Fisher-Yates shuffle over the indices of the array, where only the indices that have been swapped out of
+     * place are remembered, in a small hash map. It costs O(1) time and memory to create and O(1) expected time and
+     * memory per item returned, so taking the first k items of a huge queue costs O(k). Unlike iterator(), it reads
+     * the queue's own array, so the queue must not be modified while it is in use */
+    public Iterator<Item> lazyIterator() {
+        return new LazyRandomizedQueueIterator();
+    }
+
+    private class LazyRandomizedQueueIterator implements Iterator<Item> {
+        private final int expectedModifications = modifications;
+        private final int size = n;
+        private final SwapMap swaps = new SwapMap();
+        private int returned = 0;
+
+        public boolean hasNext() {
+            return (returned < size);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        /* Step i of the shuffle: positions [0, i) hold the items already returned, and position j holds swaps.get(j),
+         * which is j itself unless an earlier step swapped it. Pick a random j in [i, size) and swap positions i and j;
+         * position i is never looked at again, so only j needs to be remembered */
+        public Item next() {
+            if (modifications != expectedModifications)
+                throw new ConcurrentModificationException("Randomized queue modified during lazy iteration");
+            if (hasNext()) {
+                int randomIndex = random.nextInt(returned, size);
+                int index = swaps.get(randomIndex);
+                swaps.put(randomIndex, swaps.get(returned));
+                returned++;
+                return s[index];
+            }
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    // map from an index to the index now in its place, with open addressing over int arrays; absent keys map to
+    // themselves
+    private static class SwapMap {
+        private int[] keys = new int[16]; // key + 1, so that 0 marks an empty slot
+        private int[] values = new int[16];
+        private int size = 0;
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9; // Fibonacci hashing, folded so that the high bits reach small tables too
+            int i = (hash ^ hash >>> 16) & mask;
+            while (keys[i] != 0 && keys[i] != key + 1)
+                i = (i + 1) & mask;
+            return i;
+        }
+
+        private int get(int key) {
+            int i = slot(key);
+            return keys[i] == 0 ? key : values[i];
+        }
+
+        private void put(int key, int value) {
+            int i = slot(key);
+            if (keys[i] == 0) {
+                if (2 * (size + 1) > keys.length) { // keep the table at most half full
+                    grow();
+                    i = slot(key);
+                }
+                keys[i] = key + 1;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys, oldValues = values;
+            keys = new int[2 * oldKeys.length];
+            values = new int[2 * oldValues.length];
+            for (int i = 0; i < oldKeys.length; i++)
+                if (oldKeys[i] != 0) {
+                    int j = slot(oldKeys[i] - 1);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+        }
+    }
+
     // unit testing (required)
     public static void main(String[] args) {
         RandomizedQueue<String> myList = new RandomizedQueue<String>();
@@ -121,6 +311,8 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         StdOut.println(myList.sample());
         StdOut.print("Second sample: ");
         StdOut.println(myList.sample());
+        StdOut.print("Sample of two: ");
+        StdOut.println(myList.sample(2));
 
         for (String s : myList) {
             StdOut.println(s);
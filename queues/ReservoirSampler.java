@@ -0,0 +1,100 @@
+/* A uniform random sample of k items from a stream of unknown length, in O(k) memory: after any number of add() calls,
+ * every k-subset of the items added so far is equally likely to be the sample (all of them, if fewer than k were added).
+ *
+ * The sample is kept in a RandomizedQueue, so evicting a uniformly random item is just dequeue() and the sample comes
+ * out in random order from its iterator. Deciding which items to keep follows Algorithm L (Li, 1994): instead of
+ * drawing a random number for every item as Algorithm R does, it draws the number of items to skip before the next
+ * one that enters the sample, from the geometric distribution that skip follows. Once the stream is much longer than
+ * k, almost every add() only counts the item, and the random draws become rare: O(k (1 + log(N / k))) of them for N
+ * items
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class ReservoirSampler<Item> implements Iterable<Item> {
+    private final int k;
+    private final RandomGenerator random;
+    private final RandomizedQueue<Item> reservoir;
+    private long seen = 0; // number of items added so far
+    private long next;     // index of the next item to enter the reservoir, once it is full
+    private double w;      // the largest of k uniform draws, for the item that entered last (see skip())
+
+    // construct a sampler that keeps k items
+    public ReservoirSampler(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    // construct a sampler that keeps k items, drawing its random choices (and those of its queue) from the generator
+    public ReservoirSampler(int k, RandomGenerator random) {
+        if (k < 0)
+            throw new IllegalArgumentException("Sample size must not be negative: k = " + k);
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        this.k = k;
+        this.random = random;
+        reservoir = new RandomizedQueue<Item>(random);
+        if (k > 0) {
+            w = Math.exp(Math.log(random()) / k);
+            next = k + skip();
+        }
+        else next = Long.MAX_VALUE;
+    }
+
+    // a uniform random number in (0, 1], so that its log is finite
+    private double random() {
+        return 1.0 - random.nextDouble();
+    }
+
+    // number of items to pass over before the next one that enters the reservoir
+    private long skip() {
+        double skip = Math.floor(Math.log(random()) / Math.log1p(-w));
+        return skip < Long.MAX_VALUE / 2 ? (long) skip : Long.MAX_VALUE / 2;
+    }
+
+    // offer the next item of the stream
+    public void add(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        if (seen < k)
+            reservoir.enqueue(item);
+        else if (seen == next) {
+            reservoir.dequeue(); // evict a uniformly random item of the sample
+            reservoir.enqueue(item);
+            w *= Math.exp(Math.log(random()) / k);
+            next = seen + 1 + skip();
+        }
+        seen++;
+    }
+
+    // number of items added so far
+    public long seen() {
+        return seen;
+    }
+
+    // number of items in the sample, min(k, seen())
+    public int size() {
+        return reservoir.size();
+    }
+
+    // return an iterator over the sample in random order
+    public Iterator<Item> iterator() {
+        return reservoir.iterator();
+    }
+
+    // unit testing: prints a sample of k words from standard input
+    public static void main(String[] args) {
+        ReservoirSampler<String> sampler = new ReservoirSampler<String>(Integer.parseInt(args[0]));
+        while (!StdIn.isEmpty()) {
+            sampler.add(StdIn.readString());
+        }
+        StdOut.println("Sampled " + sampler.size() + " of " + sampler.seen() + " words:");
+        for (String s : sampler) {
+            StdOut.println(s);
+        }
+    }
+}
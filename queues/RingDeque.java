@@ -0,0 +1,139 @@
+/* A double-ended queue with the same API as Deque, backed by a circular array instead of a linked list.
+ * The items are kept in s[head], s[head + 1], ..., s[head + n - 1], wrapping around the end of the array. The capacity
+ * is always a power of two, so wrapping an index around is a mask rather than a division or a branch. As in
+ * RandomizedQueue, the array doubles when it is full and halves when it is a quarter full, so every operation is
+ * amortized O(1), and an item costs one array slot (4 or 8 bytes) instead of a 32-40 byte Node
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class RingDeque<Item> implements Iterable<Item> {
+    private static final int MIN_CAPACITY = 8;
+
+    private Item[] s = (Item[]) new Object[MIN_CAPACITY];
+    private int head = 0; // index of the first item
+    private int n = 0;
+
+    // construct an empty deque
+    public RingDeque() {
+        // no code, use the default no-argument constructor here
+    }
+
+    // resize the array to the given power of two, moving the first item to index 0
+    private void resize(int capacity) {
+        Item[] copy = (Item[]) new Object[capacity];
+        int firstRun = Math.min(n, s.length - head); // items up to the end of the array, then the ones wrapped around
+        System.arraycopy(s, head, copy, 0, firstRun);
+        System.arraycopy(s, 0, copy, firstRun, n - firstRun);
+        s = copy;
+        head = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return n;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) throw new IllegalArgumentException(
+                "Null argument entered for addFirst, please provide an appropriate Item");
+        if (n == s.length)
+            resize(2 * n);
+        head = (head - 1) & (s.length - 1);
+        s[head] = item;
+        n++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) throw new IllegalArgumentException(
+                "Null argument entered for addLast, please provide an appropriate Item");
+        if (n == s.length)
+            resize(2 * n);
+        s[(head + n) & (s.length - 1)] = item;
+        n++;
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (n == 0) {
+            throw new NoSuchElementException(
+                    "Attempted to call removeFirst while Deque is empty, size must be > 0");
+        }
+        Item item = s[head];
+        s[head] = null; // remove the reference to prevent loitering
+        head = (head + 1) & (s.length - 1);
+        n--;
+        shrink();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (n == 0) {
+            throw new NoSuchElementException(
+                    "Attempted to call removeLast while Deque is empty, size must be > 0");
+        }
+        int index = (head + n - 1) & (s.length - 1);
+        Item item = s[index];
+        s[index] = null; // remove the reference to prevent loitering
+        n--;
+        shrink();
+        return item;
+    }
+
+    // halve the array once it is a quarter full, but never below MIN_CAPACITY
+    private void shrink() {
+        if (n == s.length / 4 && s.length > MIN_CAPACITY)
+            resize(s.length / 2);
+    }
+
+    // return an iterator over items in order from front to back
+    public Iterator<Item> iterator() {
+        return new RingDequeIterator();
+    }
+
+    private class RingDequeIterator implements Iterator<Item> {
+        private int i = 0; // number of items returned so far
+
+        public boolean hasNext() {
+            return i < n;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        public Item next() {
+            if (hasNext())
+                return s[(head + i++) & (s.length - 1)];
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    // unit testing (required)
+    public static void main(String[] args) {
+        RingDeque<String> myList = new RingDeque<String>();
+        while (!StdIn.isEmpty()) {
+            myList.addFirst(StdIn.readString());
+        }
+        myList.removeFirst();
+        myList.removeLast();
+        myList.addFirst("car");
+        myList.addLast("motorcycle");
+        for (String s : myList) {
+            StdOut.println(s);
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+/* A randomized queue where every item carries a positive weight, and dequeue() and sample() pick each item with
+ * probability proportional to its weight. Like RandomizedQueue, the items are kept in a resizing array and removed by
+ * moving the last item into the hole (swap with last); the weights sit at the same positions in a Fenwick tree of
+ * partial sums, so picking a position by weight, removing it and changing a weight all cost O(log n).
+ *
+ * Weights are looked up by item, so the items must be distinct (by equals). An alias table would pick in O(1), but
+ * it has to be rebuilt in O(n) after every removal or weight change, so it only pays off for a fixed set of items.
+ *
+ * Floating-point partial sums pick up rounding errors as weights are added and taken out; the tree is rebuilt from
+ * the exact weights whenever it grows or shrinks, and after every 2 * capacity updates, which keeps the error at the
+ * level of a few additions at an amortized O(1) cost per update
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class WeightedRandomizedQueue<Item> implements Iterable<Item> {
+    private Item[] s = (Item[]) new Object[1];
+    private double[] weights = new double[1];
+    private SumTree tree = new SumTree(weights, 0, 1);
+    private final Map<Item, Integer> positions = new HashMap<Item, Integer>();
+    private int n = 0;
+    private int updates = 0; // tree updates since it was last built from the weights
+    private final RandomGenerator random;
+
+    // construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        this(new SplittableRandom());
+    }
+
+    // construct an empty weighted randomized queue drawing its random choices from the given generator
+    public WeightedRandomizedQueue(RandomGenerator random) {
+        if (random == null)
+            throw new IllegalArgumentException("Null argument provided for the random generator");
+        this.random = random;
+    }
+
+    // resize the arrays, rebuilding the tree over the new capacity
+    private void resize(int capacity) {
+        s = Arrays.copyOf(s, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        rebuild();
+    }
+
+    private void rebuild() {
+        tree = new SumTree(weights, n, weights.length);
+        updates = 0;
+    }
+
+    private void addWeight(int position, double delta) {
+        tree.add(position, delta);
+        updates++;
+    }
+
+    /* rebuild the tree if it has taken enough updates since it was last built. Only called at the end of an operation,
+     * once weights[0..n) are consistent again: a rebuild in the middle of one would start from weights that are about
+     * to change, and the updates still to come would then be applied on top of it twice */
+    private void rebuildIfStale() {
+        if (updates > 2 * weights.length)
+            rebuild();
+    }
+
+    private static void checkWeight(double weight) {
+        if (!(weight > 0) || Double.isInfinite(weight))
+            throw new IllegalArgumentException("Weight must be positive and finite: weight = " + weight);
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return (n == 0);
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return n;
+    }
+
+    // return the sum of the weights of all items
+    public double totalWeight() {
+        return n == 0 ? 0 : tree.total();
+    }
+
+    // add the item with the given weight; the item must not be on the queue already
+    public void enqueue(Item item, double weight) {
+        if (item == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        checkWeight(weight);
+        if (positions.containsKey(item))
+            throw new IllegalArgumentException("Item already on the queue: " + item);
+        if (n == s.length)
+            resize(2 * n);
+        s[n] = item;
+        weights[n] = weight;
+        positions.put(item, n);
+        addWeight(n, weight);
+        n++;
+        rebuildIfStale();
+    }
+
+    // is the item on the queue?
+    public boolean contains(Item item) {
+        return positions.containsKey(item);
+    }
+
+    // return the weight of the item
+    public double weight(Item item) {
+        return weights[position(item)];
+    }
+
+    // change the weight of an item on the queue
+    public void setWeight(Item item, double weight) {
+        checkWeight(weight);
+        int position = position(item);
+        addWeight(position, weight - weights[position]);
+        weights[position] = weight;
+        rebuildIfStale();
+    }
+
+    private int position(Item item) {
+        Integer position = item == null ? null : positions.get(item);
+        if (position == null)
+            throw new NoSuchElementException("Item not on the queue: " + item);
+        return position;
+    }
+
+    // remove and return a random item, chosen with probability proportional to its weight
+    public Item dequeue() {
+        if (n == 0)
+            throw new NoSuchElementException("List is empty, no items to return");
+
+        int randomIndex = pick();
+        Item item = s[randomIndex];
+        int last = n - 1;
+        // move the last item (and its weight) into the hole, then clear the last position
+        if (randomIndex != last) {
+            addWeight(randomIndex, weights[last] - weights[randomIndex]);
+            s[randomIndex] = s[last];
+            weights[randomIndex] = weights[last];
+            positions.put(s[randomIndex], randomIndex);
+        }
+        addWeight(last, -weights[last]);
+        s[last] = null; // remove the last reference to prevent loitering
+        weights[last] = 0;
+        positions.remove(item);
+        n--;
+
+        if (n > 0 && n == s.length / 4)
+            resize(s.length / 2);
+        else rebuildIfStale();
+
+        return item;
+    }
+
+    // return a random item chosen with probability proportional to its weight (but do not remove it)
+    public Item sample() {
+        if (n == 0)
+            throw new NoSuchElementException("List is empty, no items to return");
+
+        return s[pick()];
+    }
+
+    private int pick() {
+        // rounding can leave crumbs of weight past the last item, which must not be picked
+        return Math.min(tree.find(random.nextDouble() * tree.total()), n - 1);
+    }
+
+    /* return an independent iterator over items in weighted random order: the order in which repeated dequeue() calls
+     * would return them. It copies the items and weights and builds its own tree, O(n) up front and O(log n) per item */
+    public Iterator<Item> iterator() {
+        return new WeightedRandomizedQueueIterator();
+    }
+
+    private class WeightedRandomizedQueueIterator implements Iterator<Item> {
+        private final Item[] items = Arrays.copyOf(s, n);
+        private final double[] itemWeights = Arrays.copyOf(weights, weights.length);
+        private final SumTree itemTree = new SumTree(itemWeights, n, itemWeights.length);
+        private int itemsLeft = n;
+
+        public boolean hasNext() {
+            return (itemsLeft > 0);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        public Item next() {
+            if (hasNext()) {
+                int randomIndex = Math.min(itemTree.find(random.nextDouble() * itemTree.total()), itemsLeft - 1);
+                Item item = items[randomIndex];
+                int last = --itemsLeft;
+                itemTree.add(randomIndex, itemWeights[last] - itemWeights[randomIndex]);
+                itemTree.add(last, -itemWeights[last]);
+                items[randomIndex] = items[last];
+                itemWeights[randomIndex] = itemWeights[last];
+                items[last] = null;
+                itemWeights[last] = 0;
+                return item;
+            }
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    /* Fenwick tree over the weights of positions 0..capacity-1, with capacity a power of two: tree[i] holds the sum of
+     * the weights of positions [i - lowbit(i), i) (1-based), so a prefix sum or an update visits O(log capacity)
+     * entries and the root entry tree[capacity] is the total */
+    private static class SumTree {
+        private final double[] tree;
+
+        // builds the tree over the first n weights in O(capacity)
+        private SumTree(double[] weights, int n, int capacity) {
+            tree = new double[capacity + 1];
+            for (int i = 1; i <= n; i++)
+                tree[i] = weights[i - 1];
+            for (int i = 1; i <= capacity; i++) {
+                int parent = i + (i & -i);
+                if (parent <= capacity)
+                    tree[parent] += tree[i];
+            }
+        }
+
+        private double total() {
+            return tree[tree.length - 1];
+        }
+
+        private void add(int position, double delta) {
+            for (int i = position + 1; i < tree.length; i += i & -i)
+                tree[i] += delta;
+        }
+
+        // the position whose weight covers target, i.e. the first one whose prefix sum (inclusive) exceeds it
+        private int find(double target) {
+            int position = 0;
+            for (int step = (tree.length - 1); step > 0; step >>= 1) {
+                int next = position + step;
+                if (next < tree.length && tree[next] <= target) {
+                    position = next;
+                    target -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
+    // unit testing: reads pairs of an item and its weight, then dequeues them all
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<String> myList = new WeightedRandomizedQueue<String>();
+        while (!StdIn.isEmpty()) {
+            String item = StdIn.readString();
+            myList.enqueue(item, StdIn.readDouble());
+        }
+        StdOut.println("Total weight: " + myList.totalWeight());
+        StdOut.print("Sample: ");
+        StdOut.println(myList.sample());
+        while (!myList.isEmpty()) {
+            StdOut.println(myList.dequeue());
+        }
+    }
+
+}
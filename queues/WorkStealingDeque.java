@@ -0,0 +1,184 @@
+/* A concurrent deque for work stealing (Chase-Lev): one owner thread pushes and pops items at the bottom end, like a
+ * stack, while any number of other threads steal items from the top end, oldest first. Neither end takes a lock:
+ *
+ * - the items live in a circular array indexed by two ever-growing counters, top (next item to steal) and bottom
+ *   (next free slot). Only the owner writes bottom, and only through a compare-and-set does anyone advance top;
+ * - push and pop touch no shared state beyond the volatile bottom, except when pop takes the very last item, which
+ *   it has to win from the thieves with the same compare-and-set on top they use;
+ * - a steal that loses its compare-and-set to another thief (or to the owner) simply tries again.
+ *
+ * The array doubles when it is full (owner side only); copying keeps every item at the same index, so a thief still
+ * reading the old array gets the same item it would have found in the new one. The array never shrinks. A stolen
+ * item stays referenced from its slot until the owner pushes over it: clearing it from the thief would race with
+ * that push.
+ *
+ * push and pop must only ever be called from the owner thread; steal, size, isEmpty and iterator from any thread
+*/
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class WorkStealingDeque<Item> implements Iterable<Item> {
+    private static final int MIN_CAPACITY = 16;
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top = 0;    // index of the next item to steal
+    private volatile long bottom = 0; // index of the slot the next push goes to
+    private volatile Item[] s = (Item[]) new Object[MIN_CAPACITY];
+
+    // construct an empty deque, owned by whichever thread is going to push to it
+    public WorkStealingDeque() {
+        // no code, use the default no-argument constructor here
+    }
+
+    // is the deque empty? (only a snapshot while other threads are using it)
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // return the number of items on the deque (only a snapshot while other threads are using it)
+    public int size() {
+        long t = top; // read top first: it only grows, so the difference never overstates the size by much
+        long b = bottom;
+        return (int) Math.max(0, b - t);
+    }
+
+    // add the item at the bottom (owner thread only)
+    public void push(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("No null inputs accepted");
+        long b = bottom;
+        long t = top;
+        Item[] a = s;
+        if (b - t >= a.length)
+            a = grow(a, t, b);
+        a[(int) b & (a.length - 1)] = item;
+        bottom = b + 1; // the volatile write publishes the item to the thieves
+    }
+
+    // copy the items in [t, b) to an array twice as large, each at the same index, and publish it
+    private Item[] grow(Item[] a, long t, long b) {
+        Item[] copy = (Item[]) new Object[2 * a.length];
+        for (long i = t; i < b; i++)
+            copy[(int) i & (copy.length - 1)] = a[(int) i & (a.length - 1)];
+        s = copy;
+        return copy;
+    }
+
+    // remove and return the item at the bottom, the one pushed last, or null if there is none (owner thread only)
+    public Item pop() {
+        long b = bottom - 1;
+        Item[] a = s;
+        bottom = b; // claim the slot before looking at top; both are volatile, so thieves cannot both miss the claim
+        long t = top;
+        if (t > b) { // empty
+            bottom = b + 1;
+            return null;
+        }
+        int index = (int) b & (a.length - 1);
+        Item item = a[index];
+        if (t < b) { // more than one item left, no thief can reach this one
+            a[index] = null;
+            return item;
+        }
+        // the last item: take it from the thieves by advancing top past it
+        boolean won = TOP.compareAndSet(this, t, t + 1);
+        bottom = b + 1;
+        if (!won)
+            return null;
+        a[index] = null;
+        return item;
+    }
+
+    // remove and return the item at the top, the oldest one, or null if the deque is empty (any thread)
+    public Item steal() {
+        while (true) {
+            long t = top;
+            long b = bottom;
+            if (t >= b)
+                return null;
+            Item[] a = s;
+            Item item = a[(int) t & (a.length - 1)];
+            if (TOP.compareAndSet(this, t, t + 1))
+                return item;
+        }
+    }
+
+    /* return an iterator over items in order from top to bottom. It is weakly consistent: it never fails because of
+     * concurrent pushes, pops or steals, returns every item at most once, and returns the items that were on the deque
+     * when it was created, except for those removed in the meantime. It may or may not return an item removed by the
+     * owner and may return one pushed in its place */
+    public Iterator<Item> iterator() {
+        return new WorkStealingIterator();
+    }
+
+    private class WorkStealingIterator implements Iterator<Item> {
+        private long i = top;
+        private final long end = bottom;
+        private final Item[] a = s;
+        private Item next = advance();
+
+        // the next item at or after index i that has not been stolen yet, or null
+        private Item advance() {
+            for (; i < end; i++) {
+                Item item = a[(int) i & (a.length - 1)];
+                // checked after reading the slot: if the item at i was still there then, no push can have reused it
+                if (item != null && top <= i) {
+                    i++;
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove() not supported for this iterator");
+        }
+
+        public Item next() {
+            if (hasNext()) {
+                Item item = next;
+                next = advance();
+                return item;
+            }
+            else throw new NoSuchElementException("No more elements in iterator");
+        }
+    }
+
+    // unit testing: the main thread pushes the words from standard input while a second thread steals some of them
+    public static void main(String[] args) throws InterruptedException {
+        WorkStealingDeque<String> myList = new WorkStealingDeque<String>();
+        while (!StdIn.isEmpty()) {
+            myList.push(StdIn.readString());
+        }
+        Thread thief = new Thread(() -> {
+            String s = myList.steal();
+            StdOut.println("Stolen: " + s);
+        });
+        thief.start();
+        StdOut.println("Popped: " + myList.pop());
+        thief.join();
+        for (String s : myList) {
+            StdOut.println(s);
+        }
+    }
+
+}
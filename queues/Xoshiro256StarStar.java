@@ -0,0 +1,42 @@
+/* xoshiro256** (Blackman and Vigna, 2018): a small, fast generator with 256 bits of state and a period of 2^256 - 1,
+ * which passes the usual statistical test batteries. Every call is a handful of shifts, rotations and xors on four
+ * longs plus two multiplications, with no synchronization, so one generator must not be shared between threads.
+ * The state is filled from the seed with SplitMix64, as its authors recommend, so nearby seeds give unrelated streams */
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public class Xoshiro256StarStar implements RandomGenerator {
+    private long s0, s1, s2, s3;
+
+    // a generator seeded from ThreadLocalRandom
+    public Xoshiro256StarStar() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    // a generator whose whole stream is determined by the seed
+    public Xoshiro256StarStar(long seed) {
+        s0 = splitMix64(seed += 0x9E3779B97F4A7C15L);
+        s1 = splitMix64(seed += 0x9E3779B97F4A7C15L);
+        s2 = splitMix64(seed += 0x9E3779B97F4A7C15L);
+        s3 = splitMix64(seed + 0x9E3779B97F4A7C15L); // never all zero: SplitMix64 is a bijection of distinct inputs
+    }
+
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+}
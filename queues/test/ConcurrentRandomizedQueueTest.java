@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentRandomizedQueueTest {
+
+    @Test
+    void returnsEveryItemOnceAndThenReportsEmpty() {
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>(4);
+        int items = 1000;
+        for (int i = 0; i < items; i++)
+            queue.enqueue(i);
+        assertEquals(items, queue.size());
+        int count = 0;
+        for (Integer item : queue)
+            count++;
+        assertEquals(items, count);
+        boolean[] seen = new boolean[items];
+        for (int i = 0; i < items; i++) {
+            int item = queue.dequeue();
+            assertTrue(!seen[item], "item " + item + " returned twice");
+            seen[item] = true;
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+        assertThrows(NoSuchElementException.class, queue::sample);
+    }
+
+    @Test
+    void rejectsNullAndBadShardCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentRandomizedQueue<Integer>(1).enqueue(null));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentRandomizedQueue<Integer>(0));
+        assertEquals(8, new ConcurrentRandomizedQueue<Integer>(5).shards());
+    }
+
+    /* one thread adds 990 items and another one 10: wherever they are stored, the first dequeue must pick one of the
+     * 10 about 1% of the time, not as often as if each thread's items had a shard of their own */
+    @Test
+    void itemsOfDifferentProducersComeOutInProportion() throws InterruptedException {
+        int trials = 1000, quiet = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>(8);
+            for (int i = 0; i < 990; i++)
+                queue.enqueue(0);
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 10; i++)
+                    queue.enqueue(1);
+            });
+            producer.start();
+            producer.join();
+            quiet += queue.dequeue();
+        }
+        assertTrue(quiet < 40, "an item of the quiet producer came out first " + quiet + " times in " + trials);
+    }
+
+    /* every thread enqueues right before it dequeues, so the queue always holds at least one item when a dequeue
+     * starts, and no dequeue may fail, however the threads interleave over the shards */
+    @Test
+    void dequeueNeverFailsWhileTheQueueHoldsItems() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>(8);
+            AtomicInteger failures = new AtomicInteger();
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        queue.enqueue(i);
+                        try {
+                            queue.dequeue();
+                        }
+                        catch (NoSuchElementException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads)
+                thread.join();
+            assertEquals(0, failures.get());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    // producers and consumers running at once: every item comes out exactly once
+    @Test
+    void everyItemIsDequeuedExactlyOnceUnderContention() throws InterruptedException {
+        int producers = 4, consumers = 4, perProducer = 50_000, items = producers * perProducer;
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>();
+        AtomicIntegerArray taken = new AtomicIntegerArray(items);
+        AtomicInteger remaining = new AtomicInteger(items);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++)
+                    queue.enqueue(offset + i);
+            }));
+        }
+        for (int c = 0; c < consumers; c++)
+            threads.add(new Thread(() -> {
+                while (remaining.get() > 0) {
+                    Integer item = queue.poll();
+                    if (item != null) {
+                        taken.incrementAndGet(item);
+                        remaining.decrementAndGet();
+                    }
+                }
+            }));
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        for (int i = 0; i < items; i++)
+            assertEquals(1, taken.get(i), "item " + i);
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedRandomizedQueueTest {
+
+    // the sum of the weights of the items on the queue, computed from scratch
+    private static double exactTotal(WeightedRandomizedQueue<Integer> queue) {
+        double total = 0;
+        for (Integer item : queue)
+            total += queue.weight(item);
+        return total;
+    }
+
+    /* a long run of enqueues, weight changes and dequeues on a small queue, which rebuilds its tree many times over:
+     * the tree's total must follow the weights, and the queue must agree with a plain map of the same items */
+    @Test
+    void treeTotalFollowsTheWeightsThroughMixedOperations() {
+        SplittableRandom random = new SplittableRandom(7);
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>(new SplittableRandom(8));
+        Map<Integer, Double> expected = new HashMap<Integer, Double>();
+        int next = 0;
+        for (int step = 0; step < 200_000; step++) {
+            int op = random.nextInt(3);
+            if (op == 0 || expected.isEmpty()) {
+                double weight = 1 + random.nextInt(100);
+                queue.enqueue(next, weight);
+                expected.put(next++, weight);
+            }
+            else if (op == 1) {
+                Integer item = new ArrayList<Integer>(expected.keySet()).get(random.nextInt(expected.size()));
+                double weight = 1 + random.nextInt(100);
+                queue.setWeight(item, weight);
+                expected.put(item, weight);
+            }
+            else {
+                Integer item = queue.dequeue();
+                assertTrue(expected.remove(item) != null, "dequeued an item that was not on the queue: " + item);
+            }
+            if (expected.size() > 8) // keep the queue small, so it resizes and rebuilds often
+                expected.remove(queue.dequeue());
+            double total = 0;
+            for (double weight : expected.values())
+                total += weight;
+            assertEquals(expected.size(), queue.size());
+            assertEquals(total, queue.totalWeight(), 1e-9 * Math.max(1, total), "at step " + step);
+            assertEquals(total, exactTotal(queue), 1e-9 * Math.max(1, total));
+        }
+    }
+
+    @Test
+    void equalWeightsAreSampledUniformlyAfterMixedOperations() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>(new SplittableRandom(3));
+        // churn through enough updates to trigger several rebuilds, then leave 4 items of weight 1
+        for (int i = 0; i < 4; i++)
+            queue.enqueue(i, 1);
+        for (int round = 0; round < 1000; round++) {
+            queue.setWeight(round % 4, 1 + round % 7);
+            int item = queue.dequeue();
+            queue.enqueue(item, 1 + round % 5);
+        }
+        for (int i = 0; i < 4; i++)
+            queue.setWeight(i, 1);
+        int samples = 100_000;
+        int[] counts = new int[4];
+        for (int i = 0; i < samples; i++)
+            counts[queue.sample()]++;
+        for (int i = 0; i < 4; i++) // 25000 expected; the standard deviation is about 137
+            assertTrue(Math.abs(counts[i] - samples / 4) < 1500, "item " + i + " sampled " + counts[i] + " times");
+    }
+
+    @Test
+    void samplesInProportionToTheWeights() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>(new SplittableRandom(5));
+        for (int i = 0; i < 4; i++)
+            queue.enqueue(i, i + 1);
+        int samples = 100_000;
+        int[] counts = new int[4];
+        for (int i = 0; i < samples; i++)
+            counts[queue.sample()]++;
+        for (int i = 0; i < 4; i++) {
+            double expected = samples * (i + 1) / 10.0;
+            assertTrue(Math.abs(counts[i] - expected) < 1500, "item " + i + " sampled " + counts[i] + " times");
+        }
+    }
+
+    @Test
+    void dequeuesEveryItemOnceAndRejectsBadInput() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<Integer>();
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            queue.enqueue(i, 0.5 + i);
+            items.add(i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(3, 1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1000, 0));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1000, Double.NaN));
+        assertThrows(NoSuchElementException.class, () -> queue.setWeight(1000, 1));
+        while (!queue.isEmpty())
+            assertTrue(items.remove(queue.dequeue()));
+        assertTrue(items.isEmpty());
+        assertFalse(queue.contains(0));
+        assertEquals(0, queue.totalWeight());
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+    }
+}
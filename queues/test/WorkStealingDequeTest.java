@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkStealingDequeTest {
+
+    @Test
+    void popIsLastInFirstOutAndStealIsFirstInFirstOut() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+        for (int i = 0; i < 100; i++) // past the initial capacity, so the array grows
+            deque.push(i);
+        assertEquals(100, deque.size());
+        assertEquals(0, deque.steal());
+        assertEquals(99, deque.pop());
+        assertEquals(1, deque.steal());
+        assertEquals(98, deque.pop());
+        int expected = 2;
+        for (Integer item : deque)
+            assertEquals(expected++, item);
+        assertEquals(98, expected);
+        while (deque.pop() != null)
+            ;
+        assertTrue(deque.isEmpty());
+        assertNull(deque.steal());
+        assertNull(deque.pop());
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>().push(null));
+    }
+
+    // the owner pushes and pops while thieves steal: every item must be taken exactly once
+    @Test
+    void everyItemIsTakenExactlyOnceUnderConcurrentSteals() throws InterruptedException {
+        int items = 200_000, thieves = 3;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+        AtomicIntegerArray taken = new AtomicIntegerArray(items);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < thieves; t++) {
+            Thread thief = new Thread(() -> {
+                while (!done.get() || !deque.isEmpty()) {
+                    Integer item = deque.steal();
+                    if (item != null)
+                        taken.incrementAndGet(item);
+                }
+            });
+            threads.add(thief);
+            thief.start();
+        }
+        for (int i = 0; i < items; i++) {
+            deque.push(i);
+            if (i % 3 == 0) {
+                Integer item = deque.pop();
+                if (item != null)
+                    taken.incrementAndGet(item);
+            }
+        }
+        Integer item;
+        while ((item = deque.pop()) != null)
+            taken.incrementAndGet(item);
+        done.set(true);
+        for (Thread thief : threads)
+            thief.join();
+        for (int i = 0; i < items; i++)
+            assertEquals(1, taken.get(i), "item " + i);
+    }
+}